@@ -0,0 +1,58 @@
+package io.github.ititus.dds.internal;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Decodes a buffer of random BC7 blocks, spread evenly over all modes, with {@link BC7} and {@link BC7Reference}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BC7Benchmark {
+
+    private static final int BLOCKS = 4096;
+
+    private final int[] out = new int[16];
+    private ByteBuffer blocks;
+
+    @Setup
+    public void setup() {
+        Random random = new Random(0);
+        byte[] data = new byte[16 * BLOCKS];
+        random.nextBytes(data);
+        for (int i = 0; i < BLOCKS; i++) {
+            int mode = i % 8;
+            data[16 * i] = (byte) ((data[16 * i] & (-2 << mode)) | (1 << mode));
+        }
+
+        blocks = ByteBuffer.wrap(data).order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BLOCKS)
+    public int[] specialized() {
+        ByteBuffer in = blocks.clear();
+        for (int i = 0; i < BLOCKS; i++) {
+            BC7.DECODER.decode(in, out);
+        }
+        return out;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BLOCKS)
+    public int[] reference() {
+        ByteBuffer in = blocks.clear();
+        for (int i = 0; i < BLOCKS; i++) {
+            BC7Reference.DECODER.decode(in, out);
+        }
+        return out;
+    }
+}
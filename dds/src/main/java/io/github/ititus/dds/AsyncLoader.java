@@ -0,0 +1,147 @@
+package io.github.ititus.dds;
+
+import io.github.ititus.dds.exception.DdsLoadException;
+import io.github.ititus.dds.internal.AllocatedResourceList;
+import io.github.ititus.dds.internal.Util;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.AsynchronousFileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.function.Consumer;
+
+/**
+ * Loads a dds file through an {@link AsynchronousFileChannel}.
+ * Reads are issued without blocking, parsing the headers and assembling the result run on the given executor.
+ * Completing the result in any way, including cancelling it, closes the channel and aborts all pending reads.
+ */
+final class AsyncLoader {
+
+    private final Path path;
+    private final DdsLoadOptions options;
+    private final Executor executor;
+    private final CompletableFuture<DdsFile> result;
+    private volatile AsynchronousFileChannel ch;
+
+    private AsyncLoader(Path path, DdsLoadOptions options, Executor executor) {
+        this.path = path;
+        this.options = options;
+        this.executor = executor;
+        this.result = new CompletableFuture<>();
+    }
+
+    static CompletableFuture<DdsFile> load(Path path, DdsLoadOptions options, Executor executor) {
+        AsyncLoader loader = new AsyncLoader(path, options, executor);
+        loader.result.whenComplete((dds, e) -> loader.closeChannel());
+        try {
+            executor.execute(loader::open);
+        } catch (Exception e) {
+            loader.fail(e);
+        }
+
+        return loader.result;
+    }
+
+    private void open() {
+        if (result.isDone()) {
+            return;
+        }
+
+        long size;
+        try {
+            ch = AsynchronousFileChannel.open(path, StandardOpenOption.READ);
+            if (result.isDone()) {
+                // cancelled while opening, the channel was not yet visible to closeChannel
+                closeChannel();
+                return;
+            }
+
+            size = ch.size();
+        } catch (Exception e) {
+            fail(e);
+            return;
+        }
+
+        ByteBuffer prefix = ByteBuffer.allocate((int) Math.min(size, DdsInfo.MAX_HEADER_SIZE));
+        then(Util.readFully(ch, prefix, 0), b -> readResources(b, size));
+    }
+
+    private void readResources(ByteBuffer prefix, long size) {
+        DdsInfo info;
+        try {
+            info = DdsInfo.load(DataReader.of(prefix));
+            info.checkLength(size);
+        } catch (Exception e) {
+            fail(e);
+            return;
+        }
+
+        // buffers are not released on failure, a read into them might still be in progress
+        DdsLayout layout = info.layout();
+        DdsBufferAllocator allocator = DdsResource.allocator(options);
+        List<ByteBuffer> buffers = new ArrayList<>();
+        List<CompletableFuture<List<DdsResource>>> reads = new ArrayList<>();
+        for (DdsResource.Run run : DdsResource.runs(layout, options)) {
+            ByteBuffer buf = allocator.allocate(run.size());
+            buffers.add(buf);
+            reads.add(Util.readFully(ch, buf, info.headerSize() + run.offset()).thenApply(b -> run.slice(layout, b)));
+        }
+
+        then(CompletableFuture.allOf(reads.toArray(CompletableFuture[]::new)), v -> {
+            List<DdsResource> resources = new ArrayList<>();
+            for (CompletableFuture<List<DdsResource>> read : reads) {
+                resources.addAll(read.join());
+            }
+
+            if (options.allocator() != null) {
+                AllocatedResourceList list = new AllocatedResourceList(resources, buffers, allocator);
+                if (!result.complete(new DdsFile(info.header(), info.header10(), list))) {
+                    // cancelled after all reads finished, so the buffers can be reused
+                    list.close();
+                }
+            } else {
+                result.complete(new DdsFile(info.header(), info.header10(), List.copyOf(resources)));
+            }
+        });
+    }
+
+    /**
+     * Continues with the given action on the executor once the future completed successfully.
+     */
+    private <T> void then(CompletableFuture<T> f, Consumer<T> action) {
+        f.whenCompleteAsync((value, e) -> {
+            if (e != null) {
+                fail(e);
+            } else if (!result.isDone()) {
+                action.accept(value);
+            }
+        }, executor).exceptionally(e -> {
+            fail(e);
+            return null;
+        });
+    }
+
+    private void fail(Throwable e) {
+        if (e instanceof CompletionException && e.getCause() != null) {
+            e = e.getCause();
+        }
+
+        result.completeExceptionally(new DdsLoadException("could not load dds file " + path, e));
+    }
+
+    private void closeChannel() {
+        AsynchronousFileChannel ch = this.ch;
+        if (ch != null) {
+            try {
+                ch.close();
+            } catch (IOException ignored) {
+            }
+        }
+    }
+}
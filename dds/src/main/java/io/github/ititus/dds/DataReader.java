@@ -1,8 +1,14 @@
 package io.github.ititus.dds;
 
+import io.github.ititus.dds.internal.Util;
+
 import java.io.DataInput;
+import java.io.EOFException;
 import java.io.IOException;
+import java.io.InputStream;
 import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.SeekableByteChannel;
 
 @FunctionalInterface
 public interface DataReader {
@@ -15,6 +21,184 @@ public interface DataReader {
         return bytesToDword(i.readByte(), i.readByte(), i.readByte(), i.readByte());
     }
 
+    /**
+     * Reader that consumes the remaining bytes of the given buffer.
+     * {@link #read(int)} returns views of the buffer instead of copying.
+     */
+    static DataReader of(ByteBuffer b) {
+        return new DataReader() {
+            @Override
+            public byte readByte() throws IOException {
+                if (!b.hasRemaining()) {
+                    throw new EOFException();
+                }
+
+                return b.get();
+            }
+
+            @Override
+            public void read(ByteBuffer target, int size) throws IOException {
+                target.put(read(size));
+            }
+
+            @Override
+            public ByteBuffer read(int size) throws IOException {
+                if (b.remaining() < size) {
+                    throw new EOFException("expected=" + size + " actual=" + b.remaining());
+                }
+
+                ByteBuffer slice = b.slice(b.position(), size);
+                b.position(b.position() + size);
+                return slice;
+            }
+
+            @Override
+            public void skip(long n) throws IOException {
+                if (b.remaining() < n) {
+                    throw new EOFException("expected=" + n + " actual=" + b.remaining());
+                }
+
+                b.position(b.position() + (int) n);
+            }
+        };
+    }
+
+    static DataReader of(InputStream is) {
+        return new DataReader() {
+            private byte[] transfer;
+
+            @Override
+            public byte readByte() throws IOException {
+                int n = is.read();
+                if (n == -1) {
+                    throw new EOFException();
+                }
+
+                return (byte) n;
+            }
+
+            @Override
+            public void read(ByteBuffer target, int size) throws IOException {
+                if (target.hasArray()) {
+                    int read = is.readNBytes(target.array(), target.arrayOffset() + target.position(), size);
+                    if (read != size) {
+                        throw new EOFException("expected=" + size + " actual=" + read);
+                    }
+                    target.position(target.position() + size);
+                } else {
+                    if (transfer == null) {
+                        transfer = new byte[Util.TRANSFER_BUFFER_SIZE];
+                    }
+
+                    byte[] arr = transfer;
+                    for (int remaining = size; remaining > 0; ) {
+                        int n = Math.min(remaining, arr.length);
+                        int read = is.readNBytes(arr, 0, n);
+                        if (read != n) {
+                            throw new EOFException("expected=" + size + " actual=" + (size - remaining + read));
+                        }
+                        target.put(arr, 0, n);
+                        remaining -= n;
+                    }
+                }
+            }
+
+            @Override
+            public void skip(long n) throws IOException {
+                is.skipNBytes(n);
+            }
+        };
+    }
+
+    /**
+     * Reader that reads straight into the target buffers, without an intermediate array.
+     * If the channel is a {@link SeekableByteChannel} skipping moves its position instead of reading.
+     */
+    static DataReader of(ReadableByteChannel ch) {
+        return new DataReader() {
+            private final ByteBuffer single = ByteBuffer.allocate(1);
+
+            @Override
+            public byte readByte() throws IOException {
+                single.clear();
+                read(single, 1);
+                return single.get(0);
+            }
+
+            @Override
+            public void read(ByteBuffer target, int size) throws IOException {
+                ByteBuffer dst = target.slice(target.position(), size);
+                while (dst.hasRemaining()) {
+                    if (ch.read(dst) < 0) {
+                        throw new EOFException("expected=" + size + " actual=" + dst.position());
+                    }
+                }
+
+                target.position(target.position() + size);
+            }
+
+            @Override
+            public void skip(long n) throws IOException {
+                if (ch instanceof SeekableByteChannel sch) {
+                    sch.position(sch.position() + n);
+                    return;
+                }
+
+                ByteBuffer buf = ByteBuffer.allocate((int) Math.min(n, Util.TRANSFER_BUFFER_SIZE));
+                while (n > 0) {
+                    buf.clear().limit((int) Math.min(n, buf.capacity()));
+                    read(buf, buf.remaining());
+                    n -= buf.position();
+                }
+            }
+        };
+    }
+
+    static DataReader of(DataInput di) {
+        return new DataReader() {
+            private byte[] transfer;
+
+            @Override
+            public byte readByte() throws IOException {
+                return di.readByte();
+            }
+
+            @Override
+            public void read(ByteBuffer target, int size) throws IOException {
+                if (target.hasArray()) {
+                    di.readFully(target.array(), target.arrayOffset() + target.position(), size);
+                    target.position(target.position() + size);
+                } else {
+                    if (transfer == null) {
+                        transfer = new byte[Util.TRANSFER_BUFFER_SIZE];
+                    }
+
+                    byte[] arr = transfer;
+                    for (int remaining = size; remaining > 0; ) {
+                        int n = Math.min(remaining, arr.length);
+                        di.readFully(arr, 0, n);
+                        target.put(arr, 0, n);
+                        remaining -= n;
+                    }
+                }
+            }
+
+            @Override
+            public void skip(long n) throws IOException {
+                while (n > 0) {
+                    int skipped = di.skipBytes((int) Math.min(n, Integer.MAX_VALUE));
+                    if (skipped <= 0) {
+                        // skipBytes does not signal the end of the input, so check it explicitly
+                        di.readByte();
+                        skipped = 1;
+                    }
+
+                    n -= skipped;
+                }
+            }
+        };
+    }
+
     byte readByte() throws IOException;
 
     default int readDword() throws IOException {
@@ -30,4 +214,25 @@ public interface DataReader {
             target.put(readByte());
         }
     }
+
+    /**
+     * Reads the next {@code size} bytes.
+     * Implementations that are backed by memory may return a view of that memory instead of copying it.
+     *
+     * @return buffer with position {@code 0} and limit {@code size}
+     */
+    default ByteBuffer read(int size) throws IOException {
+        ByteBuffer buf = ByteBuffer.allocate(size);
+        read(buf, size);
+        return buf.flip();
+    }
+
+    /**
+     * Skips the next {@code n} bytes.
+     */
+    default void skip(long n) throws IOException {
+        for (long i = 0; i < n; i++) {
+            readByte();
+        }
+    }
 }
@@ -0,0 +1,42 @@
+package io.github.ititus.dds;
+
+/**
+ * Counters of a block compressed decode that skipped solid and repeated blocks.
+ *
+ * @param blocks       number of decoded blocks
+ * @param solidBlocks  number of blocks filled with a single color without decoding them
+ * @param cachedBlocks number of blocks copied from an identical, previously decoded block
+ */
+public record DdsBlockStatistics(
+        long blocks,
+        long solidBlocks,
+        long cachedBlocks
+) {
+
+    public static final DdsBlockStatistics EMPTY = new DdsBlockStatistics(0, 0, 0);
+
+    public DdsBlockStatistics add(DdsBlockStatistics other) {
+        return new DdsBlockStatistics(blocks + other.blocks, solidBlocks + other.solidBlocks, cachedBlocks + other.cachedBlocks);
+    }
+
+    /**
+     * @return fraction of blocks that were solid
+     */
+    public double solidRate() {
+        return blocks == 0 ? 0 : (double) solidBlocks / blocks;
+    }
+
+    /**
+     * @return fraction of blocks that were found in the cache
+     */
+    public double cacheHitRate() {
+        return blocks == 0 ? 0 : (double) cachedBlocks / blocks;
+    }
+
+    /**
+     * @return fraction of blocks that did not have to be decoded
+     */
+    public double skipRate() {
+        return blocks == 0 ? 0 : (double) (solidBlocks + cachedBlocks) / blocks;
+    }
+}
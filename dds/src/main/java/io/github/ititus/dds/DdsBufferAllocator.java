@@ -0,0 +1,46 @@
+package io.github.ititus.dds;
+
+import io.github.ititus.dds.internal.PooledBufferAllocator;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Provides the buffers that resources are loaded into.
+ * Buffers of a loaded file are handed back through {@link #release(ByteBuffer)} when it is {@link DdsFile#close()
+ * closed}, so resources of a closed file must not be used anymore.
+ *
+ * @see DdsLoadOptions#withAllocator(DdsBufferAllocator)
+ */
+@FunctionalInterface
+public interface DdsBufferAllocator {
+
+    static DdsBufferAllocator heap() {
+        return ByteBuffer::allocate;
+    }
+
+    static DdsBufferAllocator direct() {
+        return ByteBuffer::allocateDirect;
+    }
+
+    /**
+     * Allocator that recycles released buffers.
+     * Buffers are rounded up to the next power of two, so buffers of similar size can be reused for each other.
+     *
+     * @param maxPooledBytes maximum combined capacity of all idle buffers, released buffers beyond that are dropped
+     * @param direct         whether to allocate direct buffers
+     */
+    static DdsBufferAllocator pooled(long maxPooledBytes, boolean direct) {
+        return new PooledBufferAllocator(maxPooledBytes, direct);
+    }
+
+    /**
+     * @return buffer with position {@code 0} and limit {@code size}
+     */
+    ByteBuffer allocate(int size);
+
+    /**
+     * Hands back a buffer that was returned by {@link #allocate(int)} and is no longer used.
+     */
+    default void release(ByteBuffer buffer) {
+    }
+}
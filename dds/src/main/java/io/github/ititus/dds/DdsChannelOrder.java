@@ -0,0 +1,29 @@
+package io.github.ititus.dds;
+
+/**
+ * Order of the 8-bit channels of a decoded pixel.
+ * Pixels stored as an int hold the first channel in their most significant byte, pixels stored as bytes hold it in
+ * their first byte.
+ */
+public enum DdsChannelOrder {
+
+    /**
+     * {@code 0xAARRGGBB} as int, like {@code BufferedImage.TYPE_INT_ARGB}.
+     */
+    ARGB,
+    /**
+     * {@code 0xRRGGBBAA} as int, or R, G, B, A as bytes, like {@code GL_RGBA} with {@code GL_UNSIGNED_BYTE}.
+     */
+    RGBA;
+
+    /**
+     * Converts ARGB pixels to this order in place.
+     */
+    void fromArgb(int[] pixels, int offset, int length) {
+        if (this == RGBA) {
+            for (int i = offset; i < offset + length; i++) {
+                pixels[i] = Integer.rotateLeft(pixels[i], Byte.SIZE);
+            }
+        }
+    }
+}
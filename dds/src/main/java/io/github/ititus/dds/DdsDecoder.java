@@ -0,0 +1,236 @@
+package io.github.ititus.dds;
+
+import io.github.ititus.dds.internal.BC;
+import io.github.ititus.dds.internal.ChannelMasks;
+import io.github.ititus.dds.internal.PackedDecoder;
+import io.github.ititus.dds.internal.Util;
+
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Decodes resources to 8-bit ARGB or RGBA pixels, without depending on {@code java.desktop}.
+ * <p>
+ * Block compressed formats are decompressed, the channels of uncompressed formats are scaled to 8 bits.
+ * Colors are returned as stored, sRGB formats are not converted to linear values.
+ * Instances are immutable and can be shared between threads.
+ */
+public final class DdsDecoder {
+
+    private final PixelFormat format;
+    private final int rowAlignment;
+    private final RowDecoder decoder;
+
+    private DdsDecoder(PixelFormat format, int rowAlignment, RowDecoder decoder) {
+        this.format = format;
+        this.rowAlignment = rowAlignment;
+        this.decoder = decoder;
+    }
+
+    public static DdsDecoder of(DdsFile dds) {
+        return of(dds.header(), dds.header10());
+    }
+
+    public static DdsDecoder of(DdsInfo info) {
+        return of(info.header(), info.header10());
+    }
+
+    /**
+     * @throws UnsupportedOperationException if the format of the resources cannot be decoded
+     */
+    public static DdsDecoder of(DdsHeader header, DdsHeaderDxt10 header10) {
+        PixelFormat format = DdsHelper.derivePixelFormat(header, header10);
+        if (format.isYUVFormat()) {
+            throw new UnsupportedOperationException("unsupported YUV format " + format);
+        } else if (format.isPacked()) {
+            throw new UnsupportedOperationException("unsupported packed format " + format);
+        } else if (format.isBlockCompressed()) {
+            BC.BlockRowDecoder decoder = BC.decoder(format);
+            return new DdsDecoder(format, 4, (b, w, rows, data, origin, stride) -> BC.decodeRows(rows, w, b, decoder, data, origin, stride));
+        }
+
+        // assume a simple format that only has to be converted
+        PackedDecoder decoder = new PackedDecoder(ChannelMasks.of(header, header10));
+        return new DdsDecoder(format, 1, decoder::decodeRows);
+    }
+
+    public PixelFormat getFormat() {
+        return format;
+    }
+
+    /**
+     * Decodes the resource into the array, with the rows stored back to back starting at index {@code 0}.
+     */
+    public void decode(DdsResource resource, int[] out, DdsChannelOrder order) {
+        decode(resource, out, 0, resource.getWidth(), order);
+    }
+
+    /**
+     * Decodes the resource into the array, one int per pixel.
+     *
+     * @param offset index of the top left pixel
+     * @param stride distance between two rows, at least the width of the resource
+     */
+    public void decode(DdsResource resource, int[] out, int offset, int stride, DdsChannelOrder order) {
+        int h = resource.getHeight();
+        int w = resource.getWidth();
+        decoder.decode(resource.getBuffer(), w, h, out, offset, stride);
+        if (order != DdsChannelOrder.ARGB) {
+            for (int y = 0; y < h; y++) {
+                order.fromArgb(out, offset + y * stride, w);
+            }
+        }
+    }
+
+    /**
+     * Decodes the resource into the buffer, one int per pixel in row-major order.
+     * The pixels are written starting at the position of the buffer, which is advanced past the last pixel.
+     *
+     * @throws BufferOverflowException if the buffer has less space than the resource has pixels
+     */
+    public void decode(DdsResource resource, IntBuffer out, DdsChannelOrder order) {
+        int h = resource.getHeight();
+        int w = resource.getWidth();
+        int size = Math.multiplyExact(w, h);
+        if (out.remaining() < size) {
+            throw new BufferOverflowException();
+        }
+
+        if (out.hasArray()) {
+            decode(resource, out.array(), out.arrayOffset() + out.position(), w, order);
+            out.position(out.position() + size);
+            return;
+        }
+
+        // decode a few rows at a time into a temporary array and transfer them in bulk
+        int stripRows = rowAlignment * Math.max(1, Util.TRANSFER_BUFFER_SIZE / Math.max(1, rowAlignment * w));
+        int[] strip = new int[Math.min(stripRows, h) * w];
+        ByteBuffer b = resource.getBuffer();
+        for (int y = 0; y < h; y += stripRows) {
+            int rows = Math.min(stripRows, h - y);
+            decoder.decode(b, w, rows, strip, 0, w);
+            order.fromArgb(strip, 0, rows * w);
+            out.put(strip, 0, rows * w);
+        }
+    }
+
+    /**
+     * Decodes the resource into the buffer, four bytes per pixel in row-major order.
+     * The channels of each pixel are stored in the given order independent of the byte order of the buffer.
+     * The pixels are written starting at the position of the buffer, which is advanced past the last pixel.
+     *
+     * @throws BufferOverflowException if the buffer has less space than the resource needs
+     */
+    public void decode(DdsResource resource, ByteBuffer out, DdsChannelOrder order) {
+        int size = Math.multiplyExact(4, Math.multiplyExact(resource.getWidth(), resource.getHeight()));
+        if (out.remaining() < size) {
+            throw new BufferOverflowException();
+        }
+
+        // big-endian ints store their most significant channel first
+        decode(resource, out.duplicate().order(ByteOrder.BIG_ENDIAN).asIntBuffer(), order);
+        out.position(out.position() + size);
+    }
+
+    /**
+     * Decodes every loaded mipmap level of one surface into the buffer, as tightly packed RGBA8 pixels.
+     * The levels are written back to back starting at the position of the buffer, which is advanced past the last one.
+     * The depth slices of volume textures are stored one after another within their level.
+     *
+     * @param dds        file this decoder was created for
+     * @param arrayIndex array slice of the surface
+     * @param faceIndex  cubemap face of the surface, {@code 0} if the file is not a cubemap
+     * @return the buffer and the offsets of the levels in it
+     * @throws BufferOverflowException if the buffer has less space than the levels need
+     */
+    public DdsMipChain decodeMipChain(DdsFile dds, int arrayIndex, int faceIndex, ByteBuffer out) {
+        List<DdsResource> resources = surface(dds, arrayIndex, faceIndex);
+        if (out.remaining() < mipChainSize(resources)) {
+            throw new BufferOverflowException();
+        }
+
+        return decodeMipChain(resources, out);
+    }
+
+    /**
+     * Like {@link #decodeMipChain(DdsFile, int, int, ByteBuffer)}, but decodes into a buffer obtained from the
+     * allocator, which is returned with position {@code 0}.
+     * The caller hands it back to the allocator once it is no longer used, e.g. after uploading it to the GPU.
+     */
+    public DdsMipChain decodeMipChain(DdsFile dds, int arrayIndex, int faceIndex, DdsBufferAllocator allocator) {
+        List<DdsResource> resources = surface(dds, arrayIndex, faceIndex);
+        ByteBuffer out = allocator.allocate(mipChainSize(resources));
+        try {
+            DdsMipChain chain = decodeMipChain(resources, out);
+            out.position(0);
+            return chain;
+        } catch (RuntimeException e) {
+            allocator.release(out);
+            throw e;
+        }
+    }
+
+    private DdsMipChain decodeMipChain(List<DdsResource> resources, ByteBuffer out) {
+        List<DdsMipChain.Level> levels = new ArrayList<>();
+        int i = 0;
+        while (i < resources.size()) {
+            DdsResource first = resources.get(i);
+            int offset = out.position();
+            int depth = 0;
+            for (; i < resources.size() && resources.get(i).getMipmapLevel() == first.getMipmapLevel(); i++, depth++) {
+                decode(resources.get(i), out, DdsChannelOrder.RGBA);
+            }
+
+            levels.add(new DdsMipChain.Level(first.getMipmapLevel(), first.getWidth(), first.getHeight(), depth, offset, out.position() - offset));
+        }
+
+        return new DdsMipChain(out, levels);
+    }
+
+    /**
+     * @return the loaded resources of the surface, ordered by mipmap level and depth slice
+     */
+    private static List<DdsResource> surface(DdsFile dds, int arrayIndex, int faceIndex) {
+        List<DdsResource> resources = new ArrayList<>();
+        for (DdsResource resource : dds.resources()) {
+            if (resource.getArrayIndex() == arrayIndex && resource.getFaceIndex() == faceIndex) {
+                resources.add(resource);
+            }
+        }
+
+        if (resources.isEmpty()) {
+            throw new IllegalArgumentException("no resources loaded for arrayIndex " + arrayIndex + " and faceIndex " + faceIndex);
+        }
+
+        resources.sort(Comparator.comparingInt(DdsResource::getMipmapLevel).thenComparingInt(DdsResource::getZLevel));
+        return resources;
+    }
+
+    private static int mipChainSize(List<DdsResource> resources) {
+        long size = 0;
+        for (DdsResource resource : resources) {
+            size += 4L * resource.getWidth() * resource.getHeight();
+        }
+
+        return Math.toIntExact(size);
+    }
+
+    @FunctionalInterface
+    private interface RowDecoder {
+
+        /**
+         * Decodes the next rows of the surface into ARGB pixels.
+         *
+         * @param b      buffer positioned at the first row, left positioned after the last one
+         * @param rows   number of rows, a multiple of the row alignment unless they are the last ones
+         * @param origin index of the top left pixel in the array
+         * @param stride distance between two rows in the array
+         */
+        void decode(ByteBuffer b, int w, int rows, int[] data, int origin, int stride);
+    }
+}
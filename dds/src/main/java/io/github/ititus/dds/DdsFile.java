@@ -1,125 +1,181 @@
 package io.github.ititus.dds;
 
 import io.github.ititus.dds.exception.DdsLoadException;
+import io.github.ititus.dds.internal.LazyResourceList;
+import io.github.ititus.dds.internal.Util;
 
 import java.io.*;
 import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 import java.util.List;
-
-import static io.github.ititus.dds.DdsConstants.DDS_MAGIC;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 
 public record DdsFile(
         DdsHeader header,
         DdsHeaderDxt10 header10,
         List<DdsResource> resources
-) {
+) implements Closeable {
 
     public static DdsFile load(Path path) throws DdsLoadException {
+        return load(path, DdsLoadOptions.DEFAULT);
+    }
+
+    public static DdsFile load(Path path, DdsLoadOptions options) throws DdsLoadException {
         try (InputStream is = new BufferedInputStream(Files.newInputStream(path))) {
-            return load(is);
+            return load(is, options);
         } catch (Exception e) {
             throw new DdsLoadException("could not load dds file " + path, e);
         }
     }
 
-    public static DdsFile load(InputStream is) throws DdsLoadException {
-        return load(new DataReader() {
-            @Override
-            public byte readByte() throws IOException {
-                int n = is.read();
-                if (n == -1) {
-                    throw new EOFException();
-                }
-
-                return (byte) n;
-            }
-
-            @Override
-            public void read(ByteBuffer target, int size) throws IOException {
-                if (target.hasArray()) {
-                    int read = is.readNBytes(target.array(), target.arrayOffset() + target.position(), size);
-                    if (read != size) {
-                        throw new EOFException("expected=" + size + " actual=" + read);
-                    }
-                    target.position(target.position() + size);
-                } else {
-                    byte[] arr = new byte[size];
-                    int read = is.readNBytes(arr, 0, size);
-                    if (read != size) {
-                        throw new EOFException("expected=" + size + " actual=" + read);
-                    }
-                    target.put(arr, 0, size);
-                }
-            }
-        });
+    /**
+     * Loads the given file without blocking the calling thread.
+     *
+     * @see #loadAsync(Path, DdsLoadOptions, Executor)
+     */
+    public static CompletableFuture<DdsFile> loadAsync(Path path, Executor executor) {
+        return loadAsync(path, DdsLoadOptions.DEFAULT, executor);
     }
 
-    public static DdsFile load(DataInput di) throws DdsLoadException {
-        return load(new DataReader() {
-            @Override
-            public byte readByte() throws IOException {
-                return di.readByte();
-            }
-
-            @Override
-            public void read(ByteBuffer target, int size) throws IOException {
-                if (target.hasArray()) {
-                    di.readFully(target.array(), target.arrayOffset() + target.position(), size);
-                    target.position(target.position() + size);
-                } else {
-                    byte[] arr = new byte[size];
-                    di.readFully(arr, 0, size);
-                    target.put(arr, 0, size);
-                }
-            }
-        });
+    /**
+     * Loads the given file without blocking the calling thread.
+     * The file is read through an {@link java.nio.channels.AsynchronousFileChannel}, while opening it, parsing the
+     * headers and completing the returned future happen on the given executor.
+     * <p>
+     * Cancelling the returned future closes the file and aborts all pending reads.
+     * Failures complete it with a {@link DdsLoadException}.
+     */
+    public static CompletableFuture<DdsFile> loadAsync(Path path, DdsLoadOptions options, Executor executor) {
+        return AsyncLoader.load(path, options, executor);
     }
 
-    public static DdsFile load(DataReader r) throws DdsLoadException {
-        int dwMagic;
+    /**
+     * Loads the headers of the given file, the resources are only read from the file when they are first accessed.
+     * <p>
+     * The file is kept open until the returned file is {@link #close() closed}.
+     * Afterward the resources can no longer be retrieved from it, but resources that were already accessed stay valid.
+     */
+    public static DdsFile loadLazy(Path path) throws DdsLoadException {
+        FileChannel ch;
         try {
-            dwMagic = r.readDword();
-        } catch (EOFException e) {
-            throw new DdsLoadException("empty dds file", e);
+            ch = FileChannel.open(path, StandardOpenOption.READ);
         } catch (Exception e) {
-            throw new DdsLoadException("could not read magic bytes", e);
+            throw new DdsLoadException("could not open dds file " + path, e);
         }
 
-        if (dwMagic != DDS_MAGIC) {
-            throw new DdsLoadException("invalid dds magic");
-        }
-
-        DdsHeader header;
         try {
-            header = DdsHeader.load(r);
+            DdsInfo info = DdsInfo.probe(ch);
+            long payloadOffset = info.headerSize();
+            return loadLazy(info, (offset, length) -> {
+                ByteBuffer buf = ByteBuffer.allocate(length);
+                Util.readFully(ch, buf, payloadOffset + offset);
+                return buf.flip();
+            }, ch);
         } catch (Exception e) {
-            throw new DdsLoadException("could not load dds header", e);
-        }
-        if (!header.isValid()) {
-            throw new DdsLoadException("invalid dds header");
-        }
-
-        DdsHeaderDxt10 header10;
-        if (header.shouldLoadHeader10()) {
             try {
-                header10 = DdsHeaderDxt10.load(r);
-            } catch (Exception e) {
-                throw new DdsLoadException("could not load dds dxt10 header", e);
+                ch.close();
+            } catch (Exception e2) {
+                e.addSuppressed(e2);
             }
-            if (!header10.isValid(header)) {
-                throw new DdsLoadException("invalid dds dxt10 header");
+
+            throw new DdsLoadException("could not load dds file " + path, e);
+        }
+    }
+
+    /**
+     * Loads the given file by mapping it into memory.
+     * The returned resources are read-only views of that mapping, no pixel data is copied.
+     * <p>
+     * The mapping stays valid until the returned file is {@link #close() closed}.
+     * Afterward the resources can no longer be retrieved from it and the mapping is released as soon as all buffers
+     * previously obtained from its resources are unreachable.
+     */
+    public static DdsFile loadMapped(Path path) throws DdsLoadException {
+        MappedByteBuffer mapping;
+        try (FileChannel ch = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = ch.size();
+            if (size > Integer.MAX_VALUE) {
+                throw new DdsLoadException("file too large to be mapped: size=" + size);
             }
-        } else {
-            header10 = null;
+
+            mapping = ch.map(FileChannel.MapMode.READ_ONLY, 0, size);
+        } catch (Exception e) {
+            throw new DdsLoadException("could not map dds file " + path, e);
+        }
+
+        try {
+            DdsInfo info = DdsInfo.load(DataReader.of(mapping.duplicate()));
+            info.checkLength(mapping.capacity());
+            int payloadOffset = info.headerSize();
+            return loadLazy(info, (offset, length) -> mapping.slice(payloadOffset + (int) offset, length), null);
+        } catch (Exception e) {
+            throw new DdsLoadException("could not load dds file " + path, e);
         }
+    }
+
+    /**
+     * Loads a dds file from the remaining bytes of the given buffer.
+     * The returned resources are read-only views of the buffer, no pixel data is copied.
+     */
+    public static DdsFile load(ByteBuffer buffer) throws DdsLoadException {
+        return load(buffer, DdsLoadOptions.DEFAULT);
+    }
+
+    public static DdsFile load(ByteBuffer buffer, DdsLoadOptions options) throws DdsLoadException {
+        return load(DataReader.of(buffer.slice()), options);
+    }
+
+    public static DdsFile load(InputStream is) throws DdsLoadException {
+        return load(is, DdsLoadOptions.DEFAULT);
+    }
+
+    public static DdsFile load(InputStream is, DdsLoadOptions options) throws DdsLoadException {
+        return load(DataReader.of(is), options);
+    }
+
+    public static DdsFile load(ReadableByteChannel ch) throws DdsLoadException {
+        return load(ch, DdsLoadOptions.DEFAULT);
+    }
+
+    /**
+     * Loads a dds file from the current position of the given channel.
+     * The resources are read straight into their buffers, which are direct if requested by the options.
+     * Excluded resources of a {@link java.nio.channels.SeekableByteChannel} are skipped by seeking past them.
+     */
+    public static DdsFile load(ReadableByteChannel ch, DdsLoadOptions options) throws DdsLoadException {
+        return load(DataReader.of(ch), options);
+    }
+
+    public static DdsFile load(DataInput di) throws DdsLoadException {
+        return load(di, DdsLoadOptions.DEFAULT);
+    }
+
+    public static DdsFile load(DataInput di, DdsLoadOptions options) throws DdsLoadException {
+        return load(DataReader.of(di), options);
+    }
+
+    public static DdsFile load(DataReader r) throws DdsLoadException {
+        return load(r, DdsLoadOptions.DEFAULT);
+    }
+
+    /**
+     * Loads only the resources included by the given options, all others are skipped.
+     * The resources of the returned file are therefore a subset of those described by its headers.
+     */
+    public static DdsFile load(DataReader r, DdsLoadOptions options) throws DdsLoadException {
+        DdsInfo info = DdsInfo.load(r);
 
         List<DdsResource> resources;
         try {
-            resources = DdsResource.loadAll(r, header, header10);
+            resources = DdsResource.loadAll(r, info.layout(), options);
         } catch (Exception e) {
-            throw new DdsLoadException("could not load dds dxt10 header", e);
+            throw new DdsLoadException("could not load dds resources", e);
         }
 
         try {
@@ -128,7 +184,48 @@ public record DdsFile(
         } catch (Exception ignored) {
         }
 
-        return new DdsFile(header, header10, resources);
+        return new DdsFile(info.header(), info.header10(), resources);
+    }
+
+    /**
+     * Streams the resources of the given file to the visitor instead of retaining them.
+     *
+     * @see #visit(DataReader, DdsLoadOptions, DdsResourceVisitor)
+     */
+    public static DdsInfo visit(Path path, DdsLoadOptions options, DdsResourceVisitor visitor) throws DdsLoadException {
+        try (InputStream is = new BufferedInputStream(Files.newInputStream(path))) {
+            return visit(DataReader.of(is), options, visitor);
+        } catch (Exception e) {
+            throw new DdsLoadException("could not load dds file " + path, e);
+        }
+    }
+
+    public static DdsInfo visit(InputStream is, DdsLoadOptions options, DdsResourceVisitor visitor) throws DdsLoadException {
+        return visit(DataReader.of(is), options, visitor);
+    }
+
+    /**
+     * Passes every resource included by the given options to the visitor as soon as it has been read.
+     * All resources share one buffer, so at most the largest single resource is held in memory.
+     */
+    public static DdsInfo visit(DataReader r, DdsLoadOptions options, DdsResourceVisitor visitor) throws DdsLoadException {
+        DdsInfo info = DdsInfo.load(r);
+
+        try {
+            visitor.visitInfo(info);
+            DdsResource.visitAll(r, info.layout(), options, visitor);
+        } catch (Exception e) {
+            throw new DdsLoadException("could not load dds resources", e);
+        }
+
+        return info;
+    }
+
+    /**
+     * @param source closed together with the returned file, may be {@code null}
+     */
+    private static DdsFile loadLazy(DdsInfo info, LazyResourceList.Loader loader, Closeable source) {
+        return new DdsFile(info.header(), info.header10(), new LazyResourceList(info.layout(), loader, source));
     }
 
     public int height() {
@@ -167,6 +264,17 @@ public record DdsFile(
         return DdsHelper.derivePixelFormat(this);
     }
 
+    /**
+     * Releases the storage backing the resources of this file, if it is owned by this file.
+     * The resources cannot be retrieved from a closed file anymore.
+     */
+    @Override
+    public void close() throws IOException {
+        if (resources instanceof Closeable c) {
+            c.close();
+        }
+    }
+
     @Override
     public String toString() {
         PixelFormat pf = this.derivePixelFormat();
@@ -3,6 +3,8 @@ package io.github.ititus.dds;
 import io.github.ititus.dds.internal.Util;
 
 import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
 import java.util.StringJoiner;
 
 import static io.github.ititus.dds.DdsConstants.*;
@@ -37,31 +39,40 @@ public record DdsHeader(
     public static final int SIZE = 124;
 
     public static DdsHeader load(DataReader r) throws IOException {
+        return load(r.read(SIZE));
+    }
+
+    /**
+     * Decodes the header from the next {@value #SIZE} bytes of the given buffer, independent of its byte order.
+     */
+    public static DdsHeader load(ByteBuffer b) {
+        ByteBuffer le = b.slice(b.position(), SIZE).order(ByteOrder.LITTLE_ENDIAN);
+        b.position(b.position() + SIZE);
         return new DdsHeader(
-                r.readDword(),
-                r.readDword(),
-                r.readDword(),
-                r.readDword(),
-                r.readDword(),
-                r.readDword(),
-                r.readDword(),
-                r.readDword(),
-                r.readDword(),
-                r.readDword(),
-                r.readDword(),
-                r.readDword(),
-                r.readDword(),
-                r.readDword(),
-                r.readDword(),
-                r.readDword(),
-                r.readDword(),
-                r.readDword(),
-                DdsPixelformat.load(r),
-                r.readDword(),
-                r.readDword(),
-                r.readDword(),
-                r.readDword(),
-                r.readDword()
+                le.getInt(),
+                le.getInt(),
+                le.getInt(),
+                le.getInt(),
+                le.getInt(),
+                le.getInt(),
+                le.getInt(),
+                le.getInt(),
+                le.getInt(),
+                le.getInt(),
+                le.getInt(),
+                le.getInt(),
+                le.getInt(),
+                le.getInt(),
+                le.getInt(),
+                le.getInt(),
+                le.getInt(),
+                le.getInt(),
+                DdsPixelformat.load(le),
+                le.getInt(),
+                le.getInt(),
+                le.getInt(),
+                le.getInt(),
+                le.getInt()
         );
     }
 
@@ -1,6 +1,9 @@
 package io.github.ititus.dds;
 
 import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.NoSuchElementException;
 import java.util.StringJoiner;
 
 import static io.github.ititus.dds.DdsConstants.*;
@@ -16,13 +19,26 @@ public record DdsHeaderDxt10(
     public static final int SIZE = 20;
 
     public static DdsHeaderDxt10 load(DataReader r) throws IOException {
-        return new DdsHeaderDxt10(
-                DxgiFormat.load(r),
-                D3d10ResourceDimension.load(r),
-                r.readUInt(),
-                r.readUInt(),
-                r.readUInt()
-        );
+        return load(r.read(SIZE));
+    }
+
+    /**
+     * Decodes the header from the next {@value #SIZE} bytes of the given buffer, independent of its byte order.
+     */
+    public static DdsHeaderDxt10 load(ByteBuffer b) throws IOException {
+        ByteBuffer le = b.slice(b.position(), SIZE).order(ByteOrder.LITTLE_ENDIAN);
+        b.position(b.position() + SIZE);
+        try {
+            return new DdsHeaderDxt10(
+                    DxgiFormat.get(le.getInt()),
+                    D3d10ResourceDimension.get(le.getInt()),
+                    le.getInt(),
+                    le.getInt(),
+                    le.getInt()
+            );
+        } catch (NoSuchElementException e) {
+            throw new IOException(e);
+        }
     }
 
     public boolean isValid(DdsHeader header) {
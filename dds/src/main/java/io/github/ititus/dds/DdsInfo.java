@@ -0,0 +1,175 @@
+package io.github.ititus.dds;
+
+import io.github.ititus.dds.exception.DdsLoadException;
+import io.github.ititus.dds.internal.Util;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import static io.github.ititus.dds.DdsConstants.DDS_MAGIC;
+
+/**
+ * Metadata of a dds file, obtained by only reading its headers.
+ */
+public record DdsInfo(
+        DdsHeader header,
+        DdsHeaderDxt10 header10,
+        DdsLayout layout
+) {
+
+    /**
+     * Maximum combined size of the magic bytes and all headers.
+     */
+    public static final int MAX_HEADER_SIZE = Integer.BYTES + DdsHeader.SIZE + DdsHeaderDxt10.SIZE;
+
+    /**
+     * Reads the headers of the given file and checks that it is long enough to hold all resources they describe.
+     * No pixel data is read.
+     */
+    public static DdsInfo probe(Path path) throws DdsLoadException {
+        try (FileChannel ch = FileChannel.open(path, StandardOpenOption.READ)) {
+            return probe(ch);
+        } catch (Exception e) {
+            throw new DdsLoadException("could not probe dds file " + path, e);
+        }
+    }
+
+    static DdsInfo probe(FileChannel ch) throws IOException {
+        long size = ch.size();
+        ByteBuffer prefix = ByteBuffer.allocate((int) Math.min(size, MAX_HEADER_SIZE));
+        Util.readFully(ch, prefix, 0);
+        prefix.flip();
+
+        DdsInfo info = load(DataReader.of(prefix));
+        info.checkLength(size);
+        return info;
+    }
+
+    /**
+     * Reads the headers from the given stream, leaving it positioned at the start of the pixel data.
+     */
+    public static DdsInfo probe(InputStream is) throws DdsLoadException {
+        return load(DataReader.of(is));
+    }
+
+    /**
+     * Reads the headers, leaving the reader positioned at the start of the pixel data.
+     * The magic bytes and the header are fetched with a single bulk read, followed by another one for the dxt10 header
+     * if present.
+     */
+    public static DdsInfo load(DataReader r) throws DdsLoadException {
+        ByteBuffer prefix;
+        try {
+            prefix = r.read(Integer.BYTES + DdsHeader.SIZE).order(ByteOrder.LITTLE_ENDIAN);
+        } catch (EOFException e) {
+            throw new DdsLoadException("dds file too short", e);
+        } catch (Exception e) {
+            throw new DdsLoadException("could not read dds header", e);
+        }
+
+        if (prefix.getInt() != DDS_MAGIC) {
+            throw new DdsLoadException("invalid dds magic");
+        }
+
+        DdsHeader header;
+        try {
+            header = DdsHeader.load(prefix);
+        } catch (Exception e) {
+            throw new DdsLoadException("could not load dds header", e);
+        }
+        if (!header.isValid()) {
+            throw new DdsLoadException("invalid dds header");
+        }
+
+        DdsHeaderDxt10 header10;
+        if (header.shouldLoadHeader10()) {
+            try {
+                header10 = DdsHeaderDxt10.load(r.read(DdsHeaderDxt10.SIZE));
+            } catch (Exception e) {
+                throw new DdsLoadException("could not load dds dxt10 header", e);
+            }
+            if (!header10.isValid(header)) {
+                throw new DdsLoadException("invalid dds dxt10 header");
+            }
+        } else {
+            header10 = null;
+        }
+
+        DdsLayout layout;
+        try {
+            layout = DdsLayout.of(header, header10);
+        } catch (Exception e) {
+            throw new DdsLoadException("could not compute dds layout", e);
+        }
+
+        return new DdsInfo(header, header10, layout);
+    }
+
+    /**
+     * @throws DdsLoadException if a file of the given length is too short to hold all resources
+     */
+    void checkLength(long length) throws DdsLoadException {
+        if (length < fileSize()) {
+            throw new DdsLoadException("dds file too short: expected=" + fileSize() + " actual=" + length);
+        }
+    }
+
+    public int height() {
+        return header.dwHeight();
+    }
+
+    public int width() {
+        return header.dwWidth();
+    }
+
+    public boolean isDxt10() {
+        return header10 != null;
+    }
+
+    /**
+     * @return combined size of the magic bytes and all headers
+     */
+    public int headerSize() {
+        return Integer.BYTES + DdsHeader.SIZE + (header10 != null ? DdsHeaderDxt10.SIZE : 0);
+    }
+
+    public int resourceCount() {
+        return layout.getResourceCount();
+    }
+
+    /**
+     * @return combined size of all resources in bytes
+     */
+    public long payloadSize() {
+        return layout.getPayloadSize();
+    }
+
+    /**
+     * @return minimum size of a file with these headers
+     */
+    public long fileSize() {
+        return headerSize() + payloadSize();
+    }
+
+    public PixelFormat derivePixelFormat() {
+        return DdsHelper.derivePixelFormat(header, header10);
+    }
+
+    @Override
+    public String toString() {
+        PixelFormat pf = this.derivePixelFormat();
+        return "DdsInfo[" +
+                "header=" + header +
+                (header10 == null ? "" : ", header10=" + header10) +
+                ", pixelFormat=" + pf.getClass().getSimpleName() + "." + pf +
+                ", resourceCount=" + this.resourceCount() +
+                ", payloadSize=" + this.payloadSize() +
+                ']';
+    }
+}
@@ -0,0 +1,245 @@
+package io.github.ititus.dds;
+
+import io.github.ititus.dds.internal.Util;
+
+import java.util.Arrays;
+import java.util.StringJoiner;
+
+/**
+ * Position and dimensions of every resource in the payload of a dds file, derived from its headers alone.
+ * <p>
+ * Resources are indexed in file order: array index, then face, then mipmap level, then z level.
+ * Every lookup is answered without walking the whole layout and without storing one entry per resource.
+ */
+public final class DdsLayout {
+
+    private final int arraySize;
+    private final int faces;
+    private final int mipMapCount;
+
+    // one entry per distinct mipmap level, once all dimensions reach 1 the remaining levels are identical
+    private final int[] heights;
+    private final int[] widths;
+    private final int[] depths;
+    private final int[] sizes;
+    private final int[] firstIndices;
+    private final long[] offsets;
+
+    private final int resourcesPerFace;
+    private final long bytesPerFace;
+    private final int resourceCount;
+    private final long payloadSize;
+
+    private DdsLayout(int arraySize, int faces, int mipMapCount, int[] heights, int[] widths, int[] depths, int[] sizes, int[] firstIndices, long[] offsets, int resourcesPerFace, long bytesPerFace, int resourceCount, long payloadSize) {
+        this.arraySize = arraySize;
+        this.faces = faces;
+        this.mipMapCount = mipMapCount;
+        this.heights = heights;
+        this.widths = widths;
+        this.depths = depths;
+        this.sizes = sizes;
+        this.firstIndices = firstIndices;
+        this.offsets = offsets;
+        this.resourcesPerFace = resourcesPerFace;
+        this.bytesPerFace = bytesPerFace;
+        this.resourceCount = resourceCount;
+        this.payloadSize = payloadSize;
+    }
+
+    /**
+     * @throws ArithmeticException if the headers describe more resources or data than can be addressed
+     */
+    public static DdsLayout of(DdsHeader header, DdsHeaderDxt10 header10) {
+        int height = Util.maxUnsigned(1, header.dwHeight());
+        int width = Util.maxUnsigned(1, header.dwWidth());
+        int depth = header.isVolumeTexture() ? Util.maxUnsigned(1, header.dwDepth()) : 1;
+        int mipMapCount = header.hasMipmaps() ? Util.maxUnsigned(1, header.dwMipMapCount()) : 1;
+        int faces = header.isCubemap() ? Util.maxUnsigned(1, header.countCubemapFaces()) : 1;
+        int arraySize = header10 != null ? Util.maxUnsigned(1, header10.arraySize()) : 1;
+        PixelFormat format = DdsHelper.derivePixelFormat(header, header10);
+
+        int levels = 0;
+        int[] heights = new int[Integer.SIZE + 1];
+        int[] widths = new int[heights.length];
+        int[] depths = new int[heights.length];
+        int[] sizes = new int[heights.length];
+        int[] firstIndices = new int[heights.length];
+        long[] offsets = new long[heights.length];
+
+        long resourcesPerFace = 0;
+        long bytesPerFace = 0;
+        int currentHeight = height;
+        int currentWidth = width;
+        int currentDepth = depth;
+        while (Integer.compareUnsigned(levels, mipMapCount) < 0) {
+            heights[levels] = currentHeight;
+            widths[levels] = currentWidth;
+            depths[levels] = currentDepth;
+            sizes[levels] = Util.calculateSurfaceSize(currentHeight, currentWidth, format);
+            firstIndices[levels] = Math.toIntExact(resourcesPerFace);
+            offsets[levels] = bytesPerFace;
+            resourcesPerFace += Integer.toUnsignedLong(currentDepth);
+            bytesPerFace = Math.addExact(bytesPerFace, Math.multiplyExact(Integer.toUnsignedLong(currentDepth), sizes[levels]));
+            levels++;
+
+            if (currentHeight == 1 && currentWidth == 1 && currentDepth == 1) {
+                break;
+            }
+
+            if (Integer.compareUnsigned(currentHeight, 1) > 0) {
+                currentHeight = Integer.divideUnsigned(currentHeight, 2);
+            }
+
+            if (Integer.compareUnsigned(currentWidth, 1) > 0) {
+                currentWidth = Integer.divideUnsigned(currentWidth, 2);
+            }
+
+            if (Integer.compareUnsigned(currentDepth, 1) > 0) {
+                currentDepth = Integer.divideUnsigned(currentDepth, 2);
+            }
+        }
+
+        // all remaining mipmap levels consist of a single surface of the smallest size
+        long tail = Integer.toUnsignedLong(mipMapCount) - levels;
+        resourcesPerFace += tail;
+        bytesPerFace = Math.addExact(bytesPerFace, Math.multiplyExact(tail, sizes[levels - 1]));
+
+        long faceCount = Math.multiplyExact(Integer.toUnsignedLong(arraySize), Integer.toUnsignedLong(faces));
+        return new DdsLayout(
+                arraySize,
+                faces,
+                mipMapCount,
+                Arrays.copyOf(heights, levels),
+                Arrays.copyOf(widths, levels),
+                Arrays.copyOf(depths, levels),
+                Arrays.copyOf(sizes, levels),
+                Arrays.copyOf(firstIndices, levels),
+                Arrays.copyOf(offsets, levels),
+                Math.toIntExact(resourcesPerFace),
+                bytesPerFace,
+                Math.toIntExact(Math.multiplyExact(faceCount, resourcesPerFace)),
+                Math.multiplyExact(faceCount, bytesPerFace)
+        );
+    }
+
+    public int getArraySize() {
+        return arraySize;
+    }
+
+    public int getFaceCount() {
+        return faces;
+    }
+
+    public int getMipmapCount() {
+        return mipMapCount;
+    }
+
+    public int getResourceCount() {
+        return resourceCount;
+    }
+
+    /**
+     * @return combined size of all resources in bytes
+     */
+    public long getPayloadSize() {
+        return payloadSize;
+    }
+
+    public int getHeight(int index) {
+        return heights[level(index)];
+    }
+
+    public int getWidth(int index) {
+        return widths[level(index)];
+    }
+
+    public int getArrayIndex(int index) {
+        checkIndex(index);
+        return index / resourcesPerFace / faces;
+    }
+
+    public int getFaceIndex(int index) {
+        checkIndex(index);
+        return index / resourcesPerFace % faces;
+    }
+
+    public int getMipmapLevel(int index) {
+        checkIndex(index);
+        int k = index % resourcesPerFace;
+        int level = levelInFace(k);
+        return depths[level] == 1 ? level + (k - firstIndices[level]) : level;
+    }
+
+    public int getZLevel(int index) {
+        checkIndex(index);
+        int k = index % resourcesPerFace;
+        int level = levelInFace(k);
+        return depths[level] == 1 ? 0 : k - firstIndices[level];
+    }
+
+    /**
+     * @return size of the resource in bytes
+     */
+    public int getSize(int index) {
+        return sizes[level(index)];
+    }
+
+    /**
+     * @return offset of the resource in bytes, relative to the start of the payload
+     */
+    public long getOffset(int index) {
+        checkIndex(index);
+        int k = index % resourcesPerFace;
+        int level = levelInFace(k);
+        return (index / resourcesPerFace) * bytesPerFace + offsets[level] + (long) (k - firstIndices[level]) * sizes[level];
+    }
+
+    /**
+     * @return index of the resource with the given coordinates
+     * @throws IndexOutOfBoundsException if there is no such resource
+     */
+    public int indexOf(int arrayIndex, int faceIndex, int mipmapLevel, int zLevel) {
+        if (Integer.compareUnsigned(arrayIndex, arraySize) >= 0) {
+            throw new IndexOutOfBoundsException("arrayIndex " + Integer.toUnsignedString(arrayIndex) + " out of bounds");
+        } else if (Integer.compareUnsigned(faceIndex, faces) >= 0) {
+            throw new IndexOutOfBoundsException("faceIndex " + Integer.toUnsignedString(faceIndex) + " out of bounds");
+        } else if (Integer.compareUnsigned(mipmapLevel, mipMapCount) >= 0) {
+            throw new IndexOutOfBoundsException("mipmapLevel " + Integer.toUnsignedString(mipmapLevel) + " out of bounds");
+        }
+
+        int level = Math.min(mipmapLevel, heights.length - 1);
+        int depth = mipmapLevel < heights.length ? depths[level] : 1;
+        if (Integer.compareUnsigned(zLevel, depth) >= 0) {
+            throw new IndexOutOfBoundsException("zLevel " + Integer.toUnsignedString(zLevel) + " out of bounds");
+        }
+
+        return (arrayIndex * faces + faceIndex) * resourcesPerFace + firstIndices[level] + (mipmapLevel - level) + zLevel;
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= resourceCount) {
+            throw new IndexOutOfBoundsException("index " + index + " out of bounds: only " + resourceCount + " resource(s) available");
+        }
+    }
+
+    private int level(int index) {
+        checkIndex(index);
+        return levelInFace(index % resourcesPerFace);
+    }
+
+    private int levelInFace(int k) {
+        int level = Arrays.binarySearch(firstIndices, k);
+        return level >= 0 ? level : -level - 2;
+    }
+
+    @Override
+    public String toString() {
+        StringJoiner j = new StringJoiner(", ", this.getClass().getSimpleName() + "[", "]");
+        j.add("arraySize=" + Integer.toUnsignedString(arraySize));
+        j.add("faces=" + Integer.toUnsignedString(faces));
+        j.add("mipMapCount=" + Integer.toUnsignedString(mipMapCount));
+        j.add("resourceCount=" + resourceCount);
+        j.add("payloadSize=" + payloadSize);
+        return j.toString();
+    }
+}
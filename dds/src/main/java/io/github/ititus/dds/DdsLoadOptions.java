@@ -0,0 +1,141 @@
+package io.github.ititus.dds;
+
+import java.util.BitSet;
+import java.util.StringJoiner;
+
+/**
+ * Restricts which resources of a dds file are loaded.
+ * Resources that are not included are skipped instead of read.
+ * <p>
+ * Instances are immutable, the {@code with*} methods return modified copies.
+ */
+public final class DdsLoadOptions {
+
+    /**
+     * Loads all resources.
+     */
+    public static final DdsLoadOptions DEFAULT = new DdsLoadOptions(0, Integer.MAX_VALUE, null, null, null);
+
+    private final int fromMipmapLevel;
+    private final int toMipmapLevel;
+    private final BitSet arrayIndices;
+    private final BitSet faces;
+    private final DdsBufferAllocator allocator;
+
+    private DdsLoadOptions(int fromMipmapLevel, int toMipmapLevel, BitSet arrayIndices, BitSet faces, DdsBufferAllocator allocator) {
+        this.fromMipmapLevel = fromMipmapLevel;
+        this.toMipmapLevel = toMipmapLevel;
+        this.arrayIndices = arrayIndices;
+        this.faces = faces;
+        this.allocator = allocator;
+    }
+
+    private static BitSet toBitSet(String name, int... values) {
+        BitSet set = new BitSet();
+        for (int value : values) {
+            if (value < 0) {
+                throw new IllegalArgumentException(name + " must not be negative");
+            }
+
+            set.set(value);
+        }
+
+        return set;
+    }
+
+    /**
+     * Only load the given range of mipmap levels.
+     *
+     * @param from first level to load (inclusive)
+     * @param to   last level to load (exclusive)
+     */
+    public DdsLoadOptions withMipmapLevels(int from, int to) {
+        if (from < 0 || to < from) {
+            throw new IllegalArgumentException("invalid mipmap range [" + from + ", " + to + ")");
+        }
+
+        return new DdsLoadOptions(from, to, arrayIndices, faces, allocator);
+    }
+
+    /**
+     * Only load the given mipmap level.
+     */
+    public DdsLoadOptions withMipmapLevel(int level) {
+        return withMipmapLevels(level, level + 1);
+    }
+
+    /**
+     * Only load the given array slices.
+     */
+    public DdsLoadOptions withArrayIndices(int... arrayIndices) {
+        return new DdsLoadOptions(fromMipmapLevel, toMipmapLevel, toBitSet("arrayIndices", arrayIndices), faces, allocator);
+    }
+
+    /**
+     * Only load the given cubemap faces.
+     * Flat and volume textures only consist of face {@code 0}.
+     */
+    public DdsLoadOptions withFaces(int... faces) {
+        return new DdsLoadOptions(fromMipmapLevel, toMipmapLevel, arrayIndices, toBitSet("faces", faces), allocator);
+    }
+
+    /**
+     * Load the resources into buffers of the given allocator.
+     * This always copies the data, even if the source is already in memory.
+     *
+     * @param allocator {@code null} to let the source provide the buffers
+     */
+    public DdsLoadOptions withAllocator(DdsBufferAllocator allocator) {
+        return new DdsLoadOptions(fromMipmapLevel, toMipmapLevel, arrayIndices, faces, allocator);
+    }
+
+    /**
+     * Load the resources into freshly allocated direct buffers.
+     * Equivalent to {@code withAllocator(directBuffers ? DdsBufferAllocator.direct() : null)}.
+     */
+    public DdsLoadOptions withDirectBuffers(boolean directBuffers) {
+        return withAllocator(directBuffers ? DdsBufferAllocator.direct() : null);
+    }
+
+    /**
+     * @return the allocator for resource buffers, {@code null} if the source provides them
+     */
+    public DdsBufferAllocator allocator() {
+        return allocator;
+    }
+
+    /**
+     * @return whether all resources are included
+     */
+    public boolean includesAll() {
+        return fromMipmapLevel == 0 && toMipmapLevel == Integer.MAX_VALUE && arrayIndices == null && faces == null;
+    }
+
+    public boolean includes(int arrayIndex, int faceIndex, int mipmapLevel) {
+        return mipmapLevel >= fromMipmapLevel && mipmapLevel < toMipmapLevel
+                && (arrayIndices == null || arrayIndices.get(arrayIndex))
+                && (faces == null || faces.get(faceIndex));
+    }
+
+    public boolean includes(DdsLayout layout, int index) {
+        return includes(layout.getArrayIndex(index), layout.getFaceIndex(index), layout.getMipmapLevel(index));
+    }
+
+    @Override
+    public String toString() {
+        StringJoiner j = new StringJoiner(", ", this.getClass().getSimpleName() + "[", "]");
+        if (fromMipmapLevel != 0 || toMipmapLevel != Integer.MAX_VALUE) {
+            j.add("mipmapLevels=[" + fromMipmapLevel + ", " + toMipmapLevel + ")");
+        }
+        if (arrayIndices != null) {
+            j.add("arrayIndices=" + arrayIndices);
+        }
+        if (faces != null) {
+            j.add("faces=" + faces);
+        }
+        if (allocator != null) {
+            j.add("allocator=" + allocator);
+        }
+        return j.toString();
+    }
+}
@@ -0,0 +1,52 @@
+package io.github.ititus.dds;
+
+import java.nio.ByteBuffer;
+import java.util.List;
+
+/**
+ * Decoded mipmap levels of one surface, stored back to back in a single buffer as tightly packed RGBA8 pixels.
+ *
+ * @param buffer holds the pixels of all levels
+ * @param levels the decoded levels, from largest to smallest
+ * @see DdsDecoder#decodeMipChain(DdsFile, int, int, ByteBuffer)
+ */
+public record DdsMipChain(
+        ByteBuffer buffer,
+        List<Level> levels
+) {
+
+    public DdsMipChain {
+        levels = List.copyOf(levels);
+    }
+
+    /**
+     * @return index of the first byte of each level in the buffer
+     */
+    public int[] offsets() {
+        return levels.stream().mapToInt(Level::offset).toArray();
+    }
+
+    /**
+     * @return view of the pixels of the level at the given index of {@link #levels()}
+     */
+    public ByteBuffer level(int index) {
+        Level level = levels.get(index);
+        return buffer.slice(level.offset(), level.size());
+    }
+
+    /**
+     * @param mipmapLevel mipmap level in the file
+     * @param depth       number of depth slices, stored one after another, {@code 1} unless this is a volume texture
+     * @param offset      index of the first byte of the level in the buffer
+     * @param size        number of bytes of the level
+     */
+    public record Level(
+            int mipmapLevel,
+            int width,
+            int height,
+            int depth,
+            int offset,
+            int size
+    ) {
+    }
+}
@@ -1,6 +1,8 @@
 package io.github.ititus.dds;
 
 import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
 import java.util.StringJoiner;
 
 import static io.github.ititus.dds.DdsConstants.*;
@@ -19,15 +21,24 @@ public record DdsPixelformat(
     public static final int SIZE = 32;
 
     public static DdsPixelformat load(DataReader r) throws IOException {
+        return load(r.read(SIZE));
+    }
+
+    /**
+     * Decodes the pixel format from the next {@value #SIZE} bytes of the given buffer, independent of its byte order.
+     */
+    public static DdsPixelformat load(ByteBuffer b) {
+        ByteBuffer le = b.slice(b.position(), SIZE).order(ByteOrder.LITTLE_ENDIAN);
+        b.position(b.position() + SIZE);
         return new DdsPixelformat(
-                r.readDword(),
-                r.readDword(),
-                r.readDword(),
-                r.readDword(),
-                r.readDword(),
-                r.readDword(),
-                r.readDword(),
-                r.readDword()
+                le.getInt(),
+                le.getInt(),
+                le.getInt(),
+                le.getInt(),
+                le.getInt(),
+                le.getInt(),
+                le.getInt(),
+                le.getInt()
         );
     }
 
@@ -1,6 +1,6 @@
 package io.github.ititus.dds;
 
-import io.github.ititus.dds.internal.Util;
+import io.github.ititus.dds.internal.AllocatedResourceList;
 
 import java.io.IOException;
 import java.nio.ByteBuffer;
@@ -11,6 +11,11 @@ import java.util.StringJoiner;
 
 public final class DdsResource {
 
+    /**
+     * Largest buffer that can be allocated safely.
+     */
+    private static final int MAX_BUFFER_SIZE = Integer.MAX_VALUE - 8;
+
     private final int height;
     private final int width;
     private final int arrayIndex;
@@ -30,58 +35,160 @@ public final class DdsResource {
     }
 
     public static List<DdsResource> loadAll(DataReader r, DdsHeader header, DdsHeaderDxt10 header10) throws IOException {
+        return loadAll(r, DdsLayout.of(header, header10));
+    }
+
+    public static List<DdsResource> loadAll(DataReader r, DdsLayout layout) throws IOException {
+        return loadAll(r, layout, DdsLoadOptions.DEFAULT);
+    }
+
+    /**
+     * Loads the resources included by the given options, skipping over all others.
+     * <p>
+     * Consecutive included resources share one backing buffer that is filled with a single read,
+     * so retaining any of them retains the whole buffer.
+     * If the options specify an allocator the backing buffers are obtained from it, and the returned list is
+     * {@link java.io.Closeable} to hand them back.
+     */
+    public static List<DdsResource> loadAll(DataReader r, DdsLayout layout, DdsLoadOptions options) throws IOException {
+        DdsBufferAllocator allocator = options.allocator();
         List<DdsResource> resources = new ArrayList<>();
+        List<ByteBuffer> buffers = new ArrayList<>();
+        try {
+            long position = 0;
+            for (Run run : runs(layout, options)) {
+                if (run.offset() > position) {
+                    r.skip(run.offset() - position);
+                }
 
-        int height = Util.maxUnsigned(1, header.dwHeight());
-        int width = Util.maxUnsigned(1, header.dwWidth());
-        int depth = header.isVolumeTexture() ? Util.maxUnsigned(1, header.dwDepth()) : 1;
-        int mipMapCount = header.hasMipmaps() ? Util.maxUnsigned(1, header.dwMipMapCount()) : 1;
-        int faces = header.isCubemap() ? Util.maxUnsigned(1, header.countCubemapFaces()) : 1;
-        int arraySize = header10 != null ? Util.maxUnsigned(1, header10.arraySize()) : 1;
-        PixelFormat format = DdsHelper.derivePixelFormat(header, header10);
-
-        for (int arrayIndex = 0; Integer.compareUnsigned(arrayIndex, arraySize) < 0; arrayIndex++) {
-            for (int face = 0; Integer.compareUnsigned(face, faces) < 0; face++) {
-                int currentHeight = height;
-                int currentWidth = width;
-                int currentDepth = depth;
-                for (int mipmap = 0; Integer.compareUnsigned(mipmap, mipMapCount) < 0; mipmap++) {
-                    int size = Util.calculateSurfaceSize(currentHeight, currentWidth, format);
-                    for (int z = 0; Integer.compareUnsigned(z, currentDepth) < 0; z++) {
-                        /*System.out.printf(
-                                "loading resource: index=%d/%d, face=%d/%d, mipmap=%d/%d, z=%d/%d | height=%d, " +
-                                        "width=%d | size=%d%n",
-                                arrayIndex, arraySize, face, faces, mipmap, mipMapCount, z, currentDepth,
-                                currentHeight, currentWidth, size
-                        );*/
-                        resources.add(load(r, currentHeight, currentWidth, arrayIndex, face, mipmap, z, size));
-                    }
+                ByteBuffer buf;
+                if (allocator != null) {
+                    buf = allocator.allocate(run.size());
+                    buffers.add(buf);
+                    r.read(buf, run.size());
+                    buf.flip();
+                } else {
+                    buf = r.read(run.size());
+                }
 
-                    if (Integer.compareUnsigned(currentHeight, 1) > 0) {
-                        currentHeight = Integer.divideUnsigned(currentHeight, 2);
-                    }
+                resources.addAll(run.slice(layout, buf));
+                position = run.offset() + run.size();
+            }
+        } catch (Exception e) {
+            if (allocator != null) {
+                buffers.forEach(allocator::release);
+            }
 
-                    if (Integer.compareUnsigned(currentWidth, 1) > 0) {
-                        currentWidth = Integer.divideUnsigned(currentWidth, 2);
-                    }
+            throw e;
+        }
+
+        return allocator != null ? new AllocatedResourceList(resources, buffers, allocator) : List.copyOf(resources);
+    }
+
+    /**
+     * Reads the resources included by the given options one at a time and passes them to the visitor,
+     * skipping over all others.
+     * All resources share a single buffer that is large enough for the largest of them.
+     */
+    public static void visitAll(DataReader r, DdsLayout layout, DdsLoadOptions options, DdsResourceVisitor visitor) throws IOException {
+        DdsBufferAllocator allocator = allocator(options);
+        ByteBuffer buf = null;
+        try {
+            long position = 0;
+            for (Run run : runs(layout, options)) {
+                if (run.offset() > position) {
+                    r.skip(run.offset() - position);
+                }
 
-                    if (Integer.compareUnsigned(currentDepth, 1) > 0) {
-                        currentDepth = Integer.divideUnsigned(currentDepth, 2);
+                for (int i = run.from(); i < run.to(); i++) {
+                    int size = layout.getSize(i);
+                    if (buf == null || buf.capacity() < size) {
+                        if (buf != null) {
+                            allocator.release(buf);
+                            buf = null;
+                        }
+
+                        buf = allocator.allocate(size);
                     }
+
+                    buf.clear();
+                    r.read(buf, size);
+                    visitor.visitResource(of(layout, i, buf.flip()));
                 }
+
+                position = run.offset() + run.size();
+            }
+        } finally {
+            if (buf != null) {
+                allocator.release(buf);
             }
         }
+    }
 
-        return List.copyOf(resources);
+    /**
+     * Groups the resources included by the given options into runs of consecutive resources,
+     * each of which fits into a single buffer.
+     */
+    static List<Run> runs(DdsLayout layout, DdsLoadOptions options) {
+        List<Run> runs = new ArrayList<>();
+        int count = layout.getResourceCount();
+        int i = 0;
+        while (i < count) {
+            if (!options.includes(layout, i)) {
+                i++;
+                continue;
+            }
+
+            int from = i;
+            long size = 0;
+            while (i < count && options.includes(layout, i) && (i == from || size + layout.getSize(i) <= MAX_BUFFER_SIZE)) {
+                size += layout.getSize(i);
+                i++;
+            }
+
+            runs.add(new Run(from, i, layout.getOffset(from), (int) size));
+        }
+
+        return runs;
+    }
+
+    /**
+     * @return the allocator of the options, falling back to heap buffers
+     */
+    static DdsBufferAllocator allocator(DdsLoadOptions options) {
+        return options.allocator() != null ? options.allocator() : DdsBufferAllocator.heap();
+    }
+
+    public static DdsResource load(DataReader r, DdsLayout layout, int index) throws IOException {
+        return of(layout, index, r.read(layout.getSize(index)));
     }
 
     public static DdsResource load(DataReader r, int height, int width, int arrayIndex, int faceIndex, int mipmapLevel, int zLevel, int size) throws IOException {
-        ByteBuffer buf = ByteBuffer.allocate(size);
-        r.read(buf, size);
-        buf.flip();
+        ByteBuffer buf = r.read(size);
         return new DdsResource(height, width, arrayIndex, faceIndex, mipmapLevel, zLevel, buf.asReadOnlyBuffer());
     }
 
+    /**
+     * Creates the resource at the given index of the layout from its data.
+     *
+     * @param buffer data of the resource, its remaining bytes must match the size given by the layout
+     */
+    public static DdsResource of(DdsLayout layout, int index, ByteBuffer buffer) {
+        if (buffer.remaining() != layout.getSize(index)) {
+            throw new IllegalArgumentException("expected " + layout.getSize(index) + " bytes but got " + buffer.remaining());
+        }
+
+        return new DdsResource(
+                layout.getHeight(index),
+                layout.getWidth(index),
+                layout.getArrayIndex(index),
+                layout.getFaceIndex(index),
+                layout.getMipmapLevel(index),
+                layout.getZLevel(index),
+                buffer.slice().asReadOnlyBuffer()
+        );
+    }
+
     public int getHeight() {
         return height;
     }
@@ -124,4 +231,25 @@ public final class DdsResource {
         j.add("zLevel=" + Integer.toUnsignedString(zLevel));
         return j.toString();
     }
+
+    /**
+     * Resources {@code [from, to)}, stored in {@code size} bytes starting at {@code offset} of the payload.
+     */
+    record Run(int from, int to, long offset, int size) {
+
+        /**
+         * @param buffer holds the data of all resources of this run
+         */
+        List<DdsResource> slice(DdsLayout layout, ByteBuffer buffer) {
+            List<DdsResource> resources = new ArrayList<>(to - from);
+            int position = 0;
+            for (int i = from; i < to; i++) {
+                int size = layout.getSize(i);
+                resources.add(of(layout, i, buffer.slice(position, size)));
+                position += size;
+            }
+
+            return resources;
+        }
+    }
 }
@@ -0,0 +1,24 @@
+package io.github.ititus.dds;
+
+import java.io.IOException;
+
+/**
+ * Receives the resources of a dds file one at a time, in file order, as soon as each of them has been read.
+ *
+ * @see DdsFile#visit(DataReader, DdsLoadOptions, DdsResourceVisitor)
+ */
+@FunctionalInterface
+public interface DdsResourceVisitor {
+
+    /**
+     * Called once with the headers, before any resource is visited.
+     */
+    default void visitInfo(DdsInfo info) throws IOException {
+    }
+
+    /**
+     * The buffer of the given resource is reused for the next resource, so it is only valid until this method
+     * returns. Its content has to be copied to be retained.
+     */
+    void visitResource(DdsResource resource) throws IOException;
+}
@@ -0,0 +1,57 @@
+package io.github.ititus.dds.internal;
+
+import io.github.ititus.dds.DdsBufferAllocator;
+import io.github.ititus.dds.DdsResource;
+
+import java.io.Closeable;
+import java.nio.ByteBuffer;
+import java.util.AbstractList;
+import java.util.List;
+import java.util.RandomAccess;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Resource list backed by buffers of an allocator.
+ * Closing it hands the buffers back to the allocator and drops all references to the resources.
+ */
+public final class AllocatedResourceList extends AbstractList<DdsResource> implements RandomAccess, Closeable {
+
+    private final int size;
+    private final DdsBufferAllocator allocator;
+    private final AtomicReference<List<ByteBuffer>> buffers;
+    private volatile List<DdsResource> resources;
+
+    /**
+     * @param buffers buffers backing the resources, as returned by the allocator
+     */
+    public AllocatedResourceList(List<DdsResource> resources, List<ByteBuffer> buffers, DdsBufferAllocator allocator) {
+        this.size = resources.size();
+        this.allocator = allocator;
+        this.buffers = new AtomicReference<>(List.copyOf(buffers));
+        this.resources = List.copyOf(resources);
+    }
+
+    @Override
+    public DdsResource get(int index) {
+        List<DdsResource> resources = this.resources;
+        if (resources == null) {
+            throw new IllegalStateException("dds file already closed");
+        }
+
+        return resources.get(index);
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public void close() {
+        resources = null;
+        List<ByteBuffer> buffers = this.buffers.getAndSet(null);
+        if (buffers != null) {
+            buffers.forEach(allocator::release);
+        }
+    }
+}
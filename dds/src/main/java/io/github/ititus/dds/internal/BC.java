@@ -0,0 +1,286 @@
+package io.github.ititus.dds.internal;
+
+import io.github.ititus.dds.D3dFormat;
+import io.github.ititus.dds.DdsBlockStatistics;
+import io.github.ititus.dds.DxgiFormat;
+import io.github.ititus.dds.PixelFormat;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+public final class BC {
+
+    /**
+     * Set this system property to {@code true} to always use the scalar decoders.
+     */
+    public static final String DISABLE_VECTOR_PROPERTY = "io.github.ititus.dds.disableVector";
+
+    /**
+     * Returned by solid color checks if the texels of a block differ, distinct from every zero-extended ARGB color.
+     */
+    static final long NOT_SOLID = -1;
+
+    private static final Function<PixelFormat, BlockRowDecoder> VECTOR_DECODERS = loadVectorDecoders();
+
+    /**
+     * The vectorized decoders are only usable if the {@code jdk.incubator.vector} module was added to the boot layer,
+     * e.g. with {@code --add-modules jdk.incubator.vector}.
+     * They are compiled separately and packaged as a multi-release layer of the jar, so the module descriptor does not
+     * declare the incubator module and has to read it at runtime instead.
+     */
+    @SuppressWarnings("unchecked")
+    private static Function<PixelFormat, BlockRowDecoder> loadVectorDecoders() {
+        Optional<Module> vector = ModuleLayer.boot().findModule("jdk.incubator.vector");
+        if (Boolean.getBoolean(DISABLE_VECTOR_PROPERTY) || vector.isEmpty()) {
+            return null;
+        }
+
+        try {
+            BC.class.getModule().addReads(vector.get());
+            return (Function<PixelFormat, BlockRowDecoder>) Class.forName("io.github.ititus.dds.internal.BCVector").getConstructor().newInstance();
+        } catch (ReflectiveOperationException | LinkageError e) {
+            return null;
+        }
+    }
+
+    /**
+     * @return whether the vectorized decoders are in use
+     */
+    public static boolean isVectorized() {
+        return VECTOR_DECODERS != null;
+    }
+
+    /**
+     * Decodes a whole surface into an array of ARGB pixels.
+     *
+     * @param b      buffer positioned at the start of the surface, left positioned after it
+     * @param origin index of the top left pixel in the array
+     * @param stride distance between two rows in the array
+     */
+    public static void decode(int h, int w, ByteBuffer b, PixelFormat format, int[] data, int origin, int stride) {
+        decodeRows(h, w, b, decoder(format), data, origin, stride);
+    }
+
+    /**
+     * Splits the surface into bands of block rows and decodes them concurrently on the given executor.
+     * Returns once all bands are decoded, leaving the buffer positioned after the surface like the sequential decode.
+     *
+     * @param parallelism maximum number of bands
+     */
+    public static void decode(int h, int w, ByteBuffer b, PixelFormat format, int[] data, int origin, int stride, Executor executor, int parallelism) {
+        BlockRowDecoder decoder = decoder(format);
+        decodeBands(h, w, b, format, data, origin, stride, executor, parallelism, () -> decoder);
+    }
+
+    /**
+     * Like {@link #decode(int, int, ByteBuffer, PixelFormat, int[], int, int, Executor, int)}, but fills solid blocks
+     * directly and copies repeated blocks from a cache instead of decoding them.
+     * This pays off for surfaces with large uniform or repetitive areas, like masks or UI atlases.
+     *
+     * @return counters of this decode
+     */
+    public static DdsBlockStatistics decodeMemoized(int h, int w, ByteBuffer b, PixelFormat format, int[] data, int origin, int stride, Executor executor, int parallelism) {
+        List<MemoizingBlockDecoder> decoders = new ArrayList<>();
+        decodeBands(h, w, b, format, data, origin, stride, executor, parallelism, () -> {
+            // every band gets its own cache, so they can run without synchronization
+            MemoizingBlockDecoder decoder = memoizingDecoder(format);
+            decoders.add(decoder);
+            return decoder;
+        });
+
+        DdsBlockStatistics statistics = DdsBlockStatistics.EMPTY;
+        for (MemoizingBlockDecoder decoder : decoders) {
+            statistics = statistics.add(decoder.statistics());
+        }
+
+        return statistics;
+    }
+
+    /**
+     * Splits the surface into bands of block rows and decodes them concurrently on the given executor.
+     *
+     * @param decoders called once per band on the calling thread
+     */
+    private static void decodeBands(int h, int w, ByteBuffer b, PixelFormat format, int[] data, int origin, int stride, Executor executor, int parallelism, Supplier<BlockRowDecoder> decoders) {
+        int blockRows = Util.ceilDivUnsigned(h, 4);
+        if (parallelism <= 1 || h <= 4 || w <= 0) {
+            decodeRows(h, w, b, decoders.get(), data, origin, stride);
+            return;
+        }
+
+        int bands = Math.min(blockRows, parallelism);
+        int blockRowsPerBand = Util.ceilDivUnsigned(blockRows, bands);
+        int pitch = Util.ceilDivUnsigned(w, 4) * (format.getBitsPerBlock() / Byte.SIZE);
+        int start = b.position();
+        List<CompletableFuture<Void>> futures = new ArrayList<>(bands);
+        for (int blockRow = 0; blockRow < blockRows; blockRow += blockRowsPerBand) {
+            int y0 = 4 * blockRow;
+            int rows = Math.min(h - y0, 4 * blockRowsPerBand);
+            ByteBuffer band = b.duplicate().order(b.order()).position(start + blockRow * pitch);
+            BlockRowDecoder decoder = decoders.get();
+            int bandOrigin = origin + y0 * stride;
+            futures.add(CompletableFuture.runAsync(() -> decodeRows(rows, w, band, decoder, data, bandOrigin, stride), executor));
+        }
+
+        try {
+            CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new)).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException re) {
+                throw re;
+            }
+
+            throw e;
+        }
+
+        b.position(start + blockRows * pitch);
+    }
+
+    /**
+     * Decodes every {@code xSub}-th column and {@code ySub}-th row of the source region starting at
+     * {@code (srcX, srcY)}, one pixel per column and row of the destination.
+     * Only the block rows containing one of these rows are decoded, and of those only the blocks intersecting the
+     * region, or only the blocks containing one of the columns if {@code xSub} is larger than a block.
+     *
+     * @param b      buffer positioned at the start of the surface, left positioned after it
+     * @param width  number of decoded columns, which must lie inside the surface
+     * @param height number of decoded rows, which must lie inside the surface
+     * @param origin index of the top left destination pixel in the array
+     * @param stride distance between two rows in the array
+     */
+    public static void decodeRegion(int h, int w, ByteBuffer b, PixelFormat format, int srcX, int srcY, int xSub, int ySub, int width, int height, int[] data, int origin, int stride) {
+        BlockRowDecoder decoder = decoder(format);
+        int blockSize = format.getBitsPerBlock() / Byte.SIZE;
+        int pitch = Util.ceilDivUnsigned(w, 4) * blockSize;
+        int start = b.position();
+
+        int bx0 = srcX >>> 2;
+        int bx1 = ((srcX + (width - 1) * xSub) >>> 2) + 1;
+        int[] row = new int[16 * (bx1 - bx0)];
+        int[] block = new int[16];
+        int decodedBlockRow = -1;
+        for (int i = 0, y = srcY; i < height; i++, y += ySub) {
+            int by = y >>> 2;
+            if (by != decodedBlockRow) {
+                int rowStart = start + by * pitch;
+                if (xSub <= 4) {
+                    b.position(rowStart + bx0 * blockSize);
+                    decoder.decode(b, bx1 - bx0, row);
+                } else {
+                    for (int j = 0, x = srcX; j < width; j++, x += xSub) {
+                        int bx = x >>> 2;
+                        b.position(rowStart + bx * blockSize);
+                        decoder.decode(b, 1, block);
+                        System.arraycopy(block, 0, row, 16 * (bx - bx0), 16);
+                    }
+                }
+
+                decodedBlockRow = by;
+            }
+
+            int texelRow = 4 * (y & 3);
+            int offset = origin + i * stride;
+            for (int j = 0, x = srcX; j < width; j++, x += xSub) {
+                data[offset + j] = row[16 * ((x >>> 2) - bx0) + texelRow + (x & 3)];
+            }
+        }
+
+        b.position(start + Util.ceilDivUnsigned(h, 4) * pitch);
+    }
+
+    private static MemoizingBlockDecoder memoizingDecoder(PixelFormat format) {
+        return switch (format) {
+            case D3dFormat.DXT1, DxgiFormat.BC1_UNORM, DxgiFormat.BC1_UNORM_SRGB -> new MemoizingBlockDecoder(BC1.DECODER, 8, (lo, hi) -> BC1.solidColor(lo, true));
+            case D3dFormat.DXT2, D3dFormat.DXT3, DxgiFormat.BC2_UNORM, DxgiFormat.BC2_UNORM_SRGB -> new MemoizingBlockDecoder(BC2.DECODER, 16, BC2::solidColor);
+            case D3dFormat.DXT4, D3dFormat.DXT5, DxgiFormat.BC3_UNORM, DxgiFormat.BC3_UNORM_SRGB -> new MemoizingBlockDecoder(BC3.DECODER, 16, BC3::solidColor);
+            // bc7 has too many ways to encode a solid block to check them cheaply
+            case DxgiFormat.BC7_UNORM, DxgiFormat.BC7_UNORM_SRGB -> new MemoizingBlockDecoder(BC7.DECODER, 16, null);
+            default -> throw new UnsupportedOperationException("unsupported block compression " + format);
+        };
+    }
+
+    /**
+     * @return the vectorized row decoder of the format if available, otherwise the scalar one
+     */
+    public static BlockRowDecoder decoder(PixelFormat format) {
+        if (VECTOR_DECODERS != null) {
+            BlockRowDecoder decoder = VECTOR_DECODERS.apply(format);
+            if (decoder != null) {
+                return decoder;
+            }
+        }
+
+        BlockDecoder decoder = blockDecoder(format);
+        return (in, blocks, out) -> {
+            int[] decoded = new int[16];
+            for (int i = 0; i < blocks; i++) {
+                decoder.decode(in, decoded);
+                System.arraycopy(decoded, 0, out, 16 * i, 16);
+            }
+        };
+    }
+
+    private static BlockDecoder blockDecoder(PixelFormat format) {
+        return switch (format) {
+            case D3dFormat.DXT1, DxgiFormat.BC1_UNORM, DxgiFormat.BC1_UNORM_SRGB -> BC1.DECODER;
+            case D3dFormat.DXT2, D3dFormat.DXT3, DxgiFormat.BC2_UNORM, DxgiFormat.BC2_UNORM_SRGB -> BC2.DECODER;
+            case D3dFormat.DXT4, D3dFormat.DXT5, DxgiFormat.BC3_UNORM, DxgiFormat.BC3_UNORM_SRGB -> BC3.DECODER;
+            case DxgiFormat.BC7_UNORM, DxgiFormat.BC7_UNORM_SRGB -> BC7.DECODER;
+            default -> throw new UnsupportedOperationException("unsupported block compression " + format);
+        };
+    }
+
+    /**
+     * Decodes the block rows covering the next {@code rows} pixel rows of a surface of the given width,
+     * writing the decoded texels straight into the array.
+     *
+     * @param b      buffer positioned at the first block of the first row, left positioned after the last block
+     * @param origin index of the top left pixel of the first row in the array
+     * @param stride distance between two rows in the array
+     */
+    public static void decodeRows(int rows, int w, ByteBuffer b, BlockRowDecoder decoder, int[] data, int origin, int stride) {
+        int blocksPerRow = Util.ceilDivUnsigned(w, 4);
+        int[] row = new int[16 * blocksPerRow];
+        for (int y = 0; y < rows; y += 4) {
+            decoder.decode(b, blocksPerRow, row);
+
+            int yMax = Math.min(4, rows - y);
+            int rowOffset = origin + y * stride;
+            for (int x = 0, k = 0; x < w; x += 4, k += 16) {
+                int xMax = Math.min(4, w - x);
+                int offset = rowOffset + x;
+                for (int i = 0; i < yMax; i++, offset += stride) {
+                    System.arraycopy(row, k + 4 * i, data, offset, xMax);
+                }
+            }
+        }
+    }
+
+    @FunctionalInterface
+    public interface BlockDecoder {
+
+        /**
+         * Decodes one block into 16 ARGB texels in row-major order, without allocating.
+         *
+         * @param in little-endian buffer positioned at the block, advanced past it
+         */
+        void decode(ByteBuffer in, int[] out);
+    }
+
+    @FunctionalInterface
+    public interface BlockRowDecoder {
+
+        /**
+         * Decodes consecutive blocks, writing the 16 ARGB texels of block {@code i} to {@code out[16 * i]} onwards.
+         *
+         * @param in little-endian buffer positioned at the first block, advanced past the last one
+         */
+        void decode(ByteBuffer in, int blocks, int[] out);
+    }
+}
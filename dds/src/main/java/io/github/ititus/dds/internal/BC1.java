@@ -0,0 +1,88 @@
+package io.github.ititus.dds.internal;
+
+import java.nio.ByteBuffer;
+
+public final class BC1 {
+
+    public static final BC.BlockDecoder DECODER = BC1::decode;
+
+    public static void decode(ByteBuffer in, int[] out) {
+        decodeColors(in.getLong(), out, true);
+    }
+
+    /**
+     * Decodes the 16 texels of a color block, read as a little-endian {@code long}.
+     *
+     * @param oneBitAlpha whether the block may use the 3-color mode with transparent black
+     */
+    static void decodeColors(long block, int[] out, boolean oneBitAlpha) {
+        int rawC0 = (int) block & 0xFFFF;
+        int rawC1 = (int) (block >>> 16) & 0xFFFF;
+        int c0 = fromR5G6B5(rawC0);
+        int c1 = fromR5G6B5(rawC1);
+        int c2, c3;
+        if (!oneBitAlpha || rawC0 > rawC1) {
+            c2 = lerp(c0, c1, 2, 1);
+            c3 = lerp(c0, c1, 1, 2);
+        } else {
+            c2 = lerp(c0, c1, 1, 1);
+            c3 = 0;
+        }
+
+        int colorIndices = (int) (block >>> 32);
+        for (int i = 0; i < 16; i++, colorIndices >>>= 2) {
+            out[i] = switch (colorIndices & 0x3) {
+                case 0 -> c0;
+                case 1 -> c1;
+                case 2 -> c2;
+                default -> c3;
+            };
+        }
+    }
+
+    /**
+     * A color block is solid if all texels use the same palette entry, or if both endpoints are equal and no texel is
+     * transparent.
+     *
+     * @return the color of every texel, {@link BC#NOT_SOLID} if the texels differ
+     */
+    static long solidColor(long block, boolean oneBitAlpha) {
+        int rawC0 = (int) block & 0xFFFF;
+        int rawC1 = (int) (block >>> 16) & 0xFFFF;
+        int colorIndices = (int) (block >>> 32);
+        if (colorIndices != (colorIndices & 0x3) * 0x55555555
+                && (rawC0 != rawC1 || (oneBitAlpha && (colorIndices & (colorIndices >>> 1) & 0x55555555) != 0))) {
+            return BC.NOT_SOLID;
+        }
+
+        int c0 = fromR5G6B5(rawC0);
+        int c1 = fromR5G6B5(rawC1);
+        boolean fourColors = !oneBitAlpha || rawC0 > rawC1;
+        return Integer.toUnsignedLong(switch (colorIndices & 0x3) {
+            case 0 -> c0;
+            case 1 -> c1;
+            case 2 -> fourColors ? lerp(c0, c1, 2, 1) : lerp(c0, c1, 1, 1);
+            default -> fourColors ? lerp(c0, c1, 1, 2) : 0;
+        });
+    }
+
+    static int fromR5G6B5(int color) {
+        int r = (color >>> 11) & 0x1f;
+        int g = (color >>> 5) & 0x3f;
+        int b = color & 0x1f;
+        // exact multiplications would be 255/31 ≈ 8.2258 and 255/63 ≈ 4.0476 respectively
+        r = ((r << 3) | (r >>> 2)); // equivalent to r * 8.25
+        g = ((g << 2) | (g >>> 4)); // equivalent to g * 4.0625
+        b = ((b << 3) | (b >>> 2)); // equivalent to b * 8.25
+        return 0xFF000000 | ((r & 0xFF) << 16) | ((g & 0xFF) << 8) | (b & 0xFF);
+    }
+
+    static int lerp(int c0, int c1, int w0, int w1) {
+        int w = w0 + w1;
+        int a = (((c0 >>> 24) & 0xFF) * w0 + ((c1 >>> 24) & 0xFF) * w1 + w / 2) / w;
+        int r = (((c0 >>> 16) & 0xFF) * w0 + ((c1 >>> 16) & 0xFF) * w1 + w / 2) / w;
+        int g = (((c0 >>> 8) & 0xFF) * w0 + ((c1 >>> 8) & 0xFF) * w1 + w / 2) / w;
+        int b = ((c0 & 0xFF) * w0 + (c1 & 0xFF) * w1 + w / 2) / w;
+        return ((a & 0xFF) << 24) | ((r & 0xFF) << 16) | ((g & 0xFF) << 8) | (b & 0xFF);
+    }
+}
@@ -0,0 +1,30 @@
+package io.github.ititus.dds.internal;
+
+import java.nio.ByteBuffer;
+
+public final class BC2 {
+
+    public static final BC.BlockDecoder DECODER = BC2::decode;
+
+    public static void decode(ByteBuffer in, int[] out) {
+        long alphas = in.getLong();
+        BC1.decodeColors(in.getLong(), out, false);
+
+        for (int i = 0; i < 16; i++, alphas >>>= 4) {
+            int alpha = ((int) alphas & 0xf) * 17;
+            out[i] = (out[i] & 0xFFFFFF) | (alpha << 24);
+        }
+    }
+
+    /**
+     * @return the color of every texel, {@link BC#NOT_SOLID} if the texels differ
+     */
+    static long solidColor(long alphas, long colors) {
+        long color = BC1.solidColor(colors, false);
+        if (color == BC.NOT_SOLID || alphas != (alphas & 0xf) * 0x1111111111111111L) {
+            return BC.NOT_SOLID;
+        }
+
+        return (color & 0xFFFFFF) | ((alphas & 0xf) * 17) << 24;
+    }
+}
@@ -0,0 +1,69 @@
+package io.github.ititus.dds.internal;
+
+import java.nio.ByteBuffer;
+
+public final class BC3 {
+
+    public static final BC.BlockDecoder DECODER = BC3::decode;
+
+    public static void decode(ByteBuffer in, int[] out) {
+        long alphaBlock = in.getLong();
+        BC1.decodeColors(in.getLong(), out, false);
+
+        long alphas = alphaPalette(alphaBlock);
+        long alphaIndices = alphaBlock >>> 16;
+        for (int i = 0; i < 16; i++, alphaIndices >>>= 3) {
+            int alpha = (int) (alphas >>> (((int) alphaIndices & 0x7) << 3)) & 0xFF;
+            out[i] = (out[i] & 0xFFFFFF) | (alpha << 24);
+        }
+    }
+
+    /**
+     * An alpha block is solid if all texels use the same palette entry, or if both endpoints are equal and no texel
+     * uses the fixed values {@code 0} or {@code 255}.
+     *
+     * @return the color of every texel, {@link BC#NOT_SOLID} if the texels differ
+     */
+    static long solidColor(long alphaBlock, long colors) {
+        long color = BC1.solidColor(colors, false);
+        if (color == BC.NOT_SOLID) {
+            return BC.NOT_SOLID;
+        }
+
+        int a0 = (int) alphaBlock & 0xFF;
+        int a1 = (int) (alphaBlock >>> 8) & 0xFF;
+        long alphaIndices = alphaBlock >>> 16;
+        int alpha;
+        if (alphaIndices == (alphaIndices & 0x7) * 0x249249249249L) {
+            alpha = (int) (alphaPalette(alphaBlock) >>> (((int) alphaIndices & 0x7) << 3)) & 0xFF;
+        } else if (a0 == a1 && (alphaIndices & (alphaIndices >>> 1) & 0x249249249249L << 1) == 0) {
+            alpha = a0;
+        } else {
+            return BC.NOT_SOLID;
+        }
+
+        return (color & 0xFFFFFF) | (long) alpha << 24;
+    }
+
+    /**
+     * @return the 8 alpha values of the block, packed into the bytes of a {@code long} in palette order
+     */
+    private static long alphaPalette(long alphaBlock) {
+        int a0 = (int) alphaBlock & 0xFF;
+        int a1 = (int) (alphaBlock >>> 8) & 0xFF;
+
+        long alphas = a0 | ((long) a1 << 8);
+        if (a0 > a1) {
+            for (int i = 1; i <= 6; i++) {
+                alphas |= (long) (((7 - i) * a0 + i * a1) / 7) << (8 * (i + 1));
+            }
+        } else {
+            for (int i = 1; i <= 4; i++) {
+                alphas |= (long) (((5 - i) * a0 + i * a1) / 5) << (8 * (i + 1));
+            }
+            alphas |= 0xFFL << 56;
+        }
+
+        return alphas;
+    }
+}
@@ -0,0 +1,436 @@
+package io.github.ititus.dds.internal;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+public final class BC7 {
+
+    public static final BC.BlockDecoder DECODER = BC7::decode;
+
+    private static void decode(ByteBuffer in, int[] out) {
+        long lo = in.getLong();
+        long hi = in.getLong();
+
+        // the mode is given by the position of the lowest set bit
+        switch (Long.numberOfTrailingZeros(lo)) {
+            case 0 -> mode0(lo, hi, out);
+            case 1 -> mode1(lo, hi, out);
+            case 2 -> mode2(lo, hi, out);
+            case 3 -> mode3(lo, hi, out);
+            case 4 -> mode4(lo, hi, out);
+            case 5 -> mode5(lo, hi, out);
+            case 6 -> mode6(lo, hi, out);
+            case 7 -> mode7(lo, hi, out);
+            default -> Arrays.fill(out, 0);
+        }
+    }
+
+    // mode 0: 3 subsets, 4 partition bits, RGB 4.4.4 with one p-bit per endpoint, 3 index bits
+    private static void mode0(long lo, long hi, int[] out) {
+        int partition = bits(lo, hi, 1, 4);
+        interpolate(out, P3[partition], anchors3(partition), stream(lo, hi, 83), 3,
+                mode0Endpoint(lo, hi, 0), mode0Endpoint(lo, hi, 1), mode0Endpoint(lo, hi, 2),
+                mode0Endpoint(lo, hi, 3), mode0Endpoint(lo, hi, 4), mode0Endpoint(lo, hi, 5));
+    }
+
+    private static int mode0Endpoint(long lo, long hi, int i) {
+        int p = bits(lo, hi, 77 + i, 1);
+        return rgb(
+                unquantize((bits(lo, hi, 5 + 4 * i, 4) << 1) | p, 5),
+                unquantize((bits(lo, hi, 29 + 4 * i, 4) << 1) | p, 5),
+                unquantize((bits(lo, hi, 53 + 4 * i, 4) << 1) | p, 5)
+        );
+    }
+
+    // mode 1: 2 subsets, 6 partition bits, RGB 6.6.6 with one p-bit per subset, 3 index bits
+    private static void mode1(long lo, long hi, int[] out) {
+        int partition = bits(lo, hi, 2, 6);
+        interpolate(out, P2[partition], anchors2(partition), stream(lo, hi, 82), 3,
+                mode1Endpoint(lo, hi, 0), mode1Endpoint(lo, hi, 1), mode1Endpoint(lo, hi, 2),
+                mode1Endpoint(lo, hi, 3), 0, 0);
+    }
+
+    private static int mode1Endpoint(long lo, long hi, int i) {
+        int p = bits(lo, hi, 80 + i / 2, 1);
+        return rgb(
+                unquantize((bits(lo, hi, 8 + 6 * i, 6) << 1) | p, 7),
+                unquantize((bits(lo, hi, 32 + 6 * i, 6) << 1) | p, 7),
+                unquantize((bits(lo, hi, 56 + 6 * i, 6) << 1) | p, 7)
+        );
+    }
+
+    // mode 2: 3 subsets, 6 partition bits, RGB 5.5.5, 2 index bits
+    private static void mode2(long lo, long hi, int[] out) {
+        int partition = bits(lo, hi, 3, 6);
+        interpolate(out, P3[partition], anchors3(partition), stream(lo, hi, 99), 2,
+                mode2Endpoint(lo, hi, 0), mode2Endpoint(lo, hi, 1), mode2Endpoint(lo, hi, 2),
+                mode2Endpoint(lo, hi, 3), mode2Endpoint(lo, hi, 4), mode2Endpoint(lo, hi, 5));
+    }
+
+    private static int mode2Endpoint(long lo, long hi, int i) {
+        return rgb(
+                unquantize(bits(lo, hi, 9 + 5 * i, 5), 5),
+                unquantize(bits(lo, hi, 39 + 5 * i, 5), 5),
+                unquantize(bits(lo, hi, 69 + 5 * i, 5), 5)
+        );
+    }
+
+    // mode 3: 2 subsets, 6 partition bits, RGB 7.7.7 with one p-bit per endpoint, 2 index bits
+    private static void mode3(long lo, long hi, int[] out) {
+        int partition = bits(lo, hi, 4, 6);
+        interpolate(out, P2[partition], anchors2(partition), stream(lo, hi, 98), 2,
+                mode3Endpoint(lo, hi, 0), mode3Endpoint(lo, hi, 1), mode3Endpoint(lo, hi, 2),
+                mode3Endpoint(lo, hi, 3), 0, 0);
+    }
+
+    private static int mode3Endpoint(long lo, long hi, int i) {
+        int p = bits(lo, hi, 94 + i, 1);
+        return rgb(
+                (bits(lo, hi, 10 + 7 * i, 7) << 1) | p,
+                (bits(lo, hi, 38 + 7 * i, 7) << 1) | p,
+                (bits(lo, hi, 66 + 7 * i, 7) << 1) | p
+        );
+    }
+
+    // mode 4: 1 subset, rotation, index selection, RGB 5.5.5, A 6, 2 and 3 index bits
+    private static void mode4(long lo, long hi, int[] out) {
+        interpolate(out, stream(lo, hi, 50), 2, stream(lo, hi, 81), 3, bits(lo, hi, 7, 1) != 0, bits(lo, hi, 5, 2),
+                mode4Endpoint(lo, hi, 0), mode4Endpoint(lo, hi, 1));
+    }
+
+    private static int mode4Endpoint(long lo, long hi, int i) {
+        return argb(
+                unquantize(bits(lo, hi, 38 + 6 * i, 6), 6),
+                unquantize(bits(lo, hi, 8 + 5 * i, 5), 5),
+                unquantize(bits(lo, hi, 18 + 5 * i, 5), 5),
+                unquantize(bits(lo, hi, 28 + 5 * i, 5), 5)
+        );
+    }
+
+    // mode 5: 1 subset, rotation, RGB 7.7.7, A 8, 2 and 2 index bits
+    private static void mode5(long lo, long hi, int[] out) {
+        interpolate(out, stream(lo, hi, 66), 2, stream(lo, hi, 97), 2, false, bits(lo, hi, 6, 2),
+                mode5Endpoint(lo, hi, 0), mode5Endpoint(lo, hi, 1));
+    }
+
+    private static int mode5Endpoint(long lo, long hi, int i) {
+        return argb(
+                bits(lo, hi, 50 + 8 * i, 8),
+                unquantize(bits(lo, hi, 8 + 7 * i, 7), 7),
+                unquantize(bits(lo, hi, 22 + 7 * i, 7), 7),
+                unquantize(bits(lo, hi, 36 + 7 * i, 7), 7)
+        );
+    }
+
+    // mode 6: 1 subset, RGBA 7.7.7.7 with one p-bit per endpoint, 4 index bits
+    private static void mode6(long lo, long hi, int[] out) {
+        interpolate(out, P1[0], 1, stream(lo, hi, 65), 4, mode6Endpoint(lo, hi, 0), mode6Endpoint(lo, hi, 1), 0, 0, 0, 0);
+    }
+
+    private static int mode6Endpoint(long lo, long hi, int i) {
+        int p = bits(lo, hi, 63 + i, 1);
+        return argb(
+                (bits(lo, hi, 49 + 7 * i, 7) << 1) | p,
+                (bits(lo, hi, 7 + 7 * i, 7) << 1) | p,
+                (bits(lo, hi, 21 + 7 * i, 7) << 1) | p,
+                (bits(lo, hi, 35 + 7 * i, 7) << 1) | p
+        );
+    }
+
+    // mode 7: 2 subsets, 6 partition bits, RGBA 5.5.5.5 with one p-bit per endpoint, 2 index bits
+    private static void mode7(long lo, long hi, int[] out) {
+        int partition = bits(lo, hi, 8, 6);
+        interpolate(out, P2[partition], anchors2(partition), stream(lo, hi, 98), 2,
+                mode7Endpoint(lo, hi, 0), mode7Endpoint(lo, hi, 1), mode7Endpoint(lo, hi, 2),
+                mode7Endpoint(lo, hi, 3), 0, 0);
+    }
+
+    private static int mode7Endpoint(long lo, long hi, int i) {
+        int p = bits(lo, hi, 94 + i, 1);
+        return argb(
+                unquantize((bits(lo, hi, 74 + 5 * i, 5) << 1) | p, 6),
+                unquantize((bits(lo, hi, 14 + 5 * i, 5) << 1) | p, 6),
+                unquantize((bits(lo, hi, 34 + 5 * i, 5) << 1) | p, 6),
+                unquantize((bits(lo, hi, 54 + 5 * i, 5) << 1) | p, 6)
+        );
+    }
+
+    /**
+     * @return {@code count} bits of the 128-bit block starting at the given bit
+     */
+    private static int bits(long lo, long hi, int offset, int count) {
+        long v;
+        if (offset >= Long.SIZE) {
+            v = hi >>> (offset - Long.SIZE);
+        } else if (offset + count <= Long.SIZE) {
+            v = lo >>> offset;
+        } else {
+            v = (lo >>> offset) | (hi << (Long.SIZE - offset));
+        }
+
+        return (int) v & ((1 << count) - 1);
+    }
+
+    /**
+     * @return all bits of the 128-bit block starting at the given bit, at most 64 of them
+     */
+    private static long stream(long lo, long hi, int offset) {
+        return offset >= Long.SIZE ? hi >>> (offset - Long.SIZE) : (lo >>> offset) | (hi << (Long.SIZE - offset));
+    }
+
+    /**
+     * Expands a value with the given number of bits to 8 bits by replicating its highest bits.
+     */
+    private static int unquantize(int value, int bits) {
+        return (value << (Byte.SIZE - bits)) | (value >>> (2 * bits - Byte.SIZE));
+    }
+
+    private static int rgb(int r, int g, int b) {
+        return argb(0xFF, r, g, b);
+    }
+
+    private static int argb(int a, int r, int g, int b) {
+        return (a << 24) | (r << 16) | (g << 8) | b;
+    }
+
+    private static int anchors2(int partition) {
+        return 1 | (1 << A2[partition]);
+    }
+
+    private static int anchors3(int partition) {
+        return 1 | (1 << A3_A[partition]) | (1 << A3_B[partition]);
+    }
+
+    /**
+     * Interpolates the texels of a block with a single index per texel, subsets beyond the partition table are unused.
+     *
+     * @param anchors bit set of the anchor texels, whose index has one bit less
+     */
+    private static void interpolate(int[] out, int[] partitionTable, int anchors, long indices, int indexBits, int e0, int e1, int e2, int e3, int e4, int e5) {
+        int[] weights = I[indexBits - 1];
+        int mask = (1 << indexBits) - 1;
+        for (int i = 0; i < 16; i++) {
+            int anchor = (anchors >>> i) & 1;
+            int w = weights[(int) indices & (mask >>> anchor)];
+            indices >>>= indexBits - anchor;
+
+            int subset = partitionTable[i];
+            int a = subset == 0 ? e0 : subset == 1 ? e2 : e4;
+            int b = subset == 0 ? e1 : subset == 1 ? e3 : e5;
+            out[i] = interpolate(a, b, w, w);
+        }
+    }
+
+    /**
+     * Interpolates the texels of a single subset block with separate color and alpha indices.
+     *
+     * @param swap whether the secondary indices are used for color and the primary ones for alpha
+     */
+    private static void interpolate(int[] out, long primary, int primaryBits, long secondary, int secondaryBits, boolean swap, int rotation, int e0, int e1) {
+        int[] primaryWeights = I[primaryBits - 1];
+        int[] secondaryWeights = I[secondaryBits - 1];
+        int primaryMask = (1 << primaryBits) - 1;
+        int secondaryMask = (1 << secondaryBits) - 1;
+        for (int i = 0; i < 16; i++) {
+            int anchor = i == 0 ? 1 : 0;
+            int wp = primaryWeights[(int) primary & (primaryMask >>> anchor)];
+            int ws = secondaryWeights[(int) secondary & (secondaryMask >>> anchor)];
+            primary >>>= primaryBits - anchor;
+            secondary >>>= secondaryBits - anchor;
+
+            int c = swap ? interpolate(e0, e1, ws, wp) : interpolate(e0, e1, wp, ws);
+            out[i] = switch (rotation) {
+                case 1 -> (c & 0x0000FFFF) | ((c >>> 8) & 0x00FF0000) | ((c << 8) & 0xFF000000);
+                case 2 -> (c & 0x00FF00FF) | ((c >>> 16) & 0x0000FF00) | ((c << 16) & 0xFF000000);
+                case 3 -> (c & 0x00FFFF00) | (c >>> 24) | ((c & 0xFF) << 24);
+                default -> c;
+            };
+        }
+    }
+
+    private static int interpolate(int e0, int e1, int colorWeight, int alphaWeight) {
+        return argb(
+                lerp(e0 >>> 24, e1 >>> 24, alphaWeight),
+                lerp((e0 >>> 16) & 0xFF, (e1 >>> 16) & 0xFF, colorWeight),
+                lerp((e0 >>> 8) & 0xFF, (e1 >>> 8) & 0xFF, colorWeight),
+                lerp(e0 & 0xFF, e1 & 0xFF, colorWeight)
+        );
+    }
+
+    private static int lerp(int x0, int x1, int weight) {
+        return (x0 * (64 - weight) + x1 * weight + 32) >>> 6;
+    }
+
+    private static final int[][] P1 = {
+            { 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0 }
+    };
+    private static final int[][] P2 = {
+            { 0, 0, 1, 1, 0, 0, 1, 1, 0, 0, 1, 1, 0, 0, 1, 1 },
+            { 0, 0, 0, 1, 0, 0, 0, 1, 0, 0, 0, 1, 0, 0, 0, 1 },
+            { 0, 1, 1, 1, 0, 1, 1, 1, 0, 1, 1, 1, 0, 1, 1, 1 },
+            { 0, 0, 0, 1, 0, 0, 1, 1, 0, 0, 1, 1, 0, 1, 1, 1 },
+            { 0, 0, 0, 0, 0, 0, 0, 1, 0, 0, 0, 1, 0, 0, 1, 1 },
+            { 0, 0, 1, 1, 0, 1, 1, 1, 0, 1, 1, 1, 1, 1, 1, 1 },
+            { 0, 0, 0, 1, 0, 0, 1, 1, 0, 1, 1, 1, 1, 1, 1, 1 },
+            { 0, 0, 0, 0, 0, 0, 0, 1, 0, 0, 1, 1, 0, 1, 1, 1 },
+            { 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 1, 0, 0, 1, 1 },
+            { 0, 0, 1, 1, 0, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1 },
+            { 0, 0, 0, 0, 0, 0, 0, 1, 0, 1, 1, 1, 1, 1, 1, 1 },
+            { 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 1, 0, 1, 1, 1 },
+            { 0, 0, 0, 1, 0, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1 },
+            { 0, 0, 0, 0, 0, 0, 0, 0, 1, 1, 1, 1, 1, 1, 1, 1 },
+            { 0, 0, 0, 0, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1 },
+            { 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 1, 1, 1, 1 },
+            { 0, 0, 0, 0, 1, 0, 0, 0, 1, 1, 1, 0, 1, 1, 1, 1 },
+            { 0, 1, 1, 1, 0, 0, 0, 1, 0, 0, 0, 0, 0, 0, 0, 0 },
+            { 0, 0, 0, 0, 0, 0, 0, 0, 1, 0, 0, 0, 1, 1, 1, 0 },
+            { 0, 1, 1, 1, 0, 0, 1, 1, 0, 0, 0, 1, 0, 0, 0, 0 },
+            { 0, 0, 1, 1, 0, 0, 0, 1, 0, 0, 0, 0, 0, 0, 0, 0 },
+            { 0, 0, 0, 0, 1, 0, 0, 0, 1, 1, 0, 0, 1, 1, 1, 0 },
+            { 0, 0, 0, 0, 0, 0, 0, 0, 1, 0, 0, 0, 1, 1, 0, 0 },
+            { 0, 1, 1, 1, 0, 0, 1, 1, 0, 0, 1, 1, 0, 0, 0, 1 },
+            { 0, 0, 1, 1, 0, 0, 0, 1, 0, 0, 0, 1, 0, 0, 0, 0 },
+            { 0, 0, 0, 0, 1, 0, 0, 0, 1, 0, 0, 0, 1, 1, 0, 0 },
+            { 0, 1, 1, 0, 0, 1, 1, 0, 0, 1, 1, 0, 0, 1, 1, 0 },
+            { 0, 0, 1, 1, 0, 1, 1, 0, 0, 1, 1, 0, 1, 1, 0, 0 },
+            { 0, 0, 0, 1, 0, 1, 1, 1, 1, 1, 1, 0, 1, 0, 0, 0 },
+            { 0, 0, 0, 0, 1, 1, 1, 1, 1, 1, 1, 1, 0, 0, 0, 0 },
+            { 0, 1, 1, 1, 0, 0, 0, 1, 1, 0, 0, 0, 1, 1, 1, 0 },
+            { 0, 0, 1, 1, 1, 0, 0, 1, 1, 0, 0, 1, 1, 1, 0, 0 },
+            { 0, 1, 0, 1, 0, 1, 0, 1, 0, 1, 0, 1, 0, 1, 0, 1 },
+            { 0, 0, 0, 0, 1, 1, 1, 1, 0, 0, 0, 0, 1, 1, 1, 1 },
+            { 0, 1, 0, 1, 1, 0, 1, 0, 0, 1, 0, 1, 1, 0, 1, 0 },
+            { 0, 0, 1, 1, 0, 0, 1, 1, 1, 1, 0, 0, 1, 1, 0, 0 },
+            { 0, 0, 1, 1, 1, 1, 0, 0, 0, 0, 1, 1, 1, 1, 0, 0 },
+            { 0, 1, 0, 1, 0, 1, 0, 1, 1, 0, 1, 0, 1, 0, 1, 0 },
+            { 0, 1, 1, 0, 1, 0, 0, 1, 0, 1, 1, 0, 1, 0, 0, 1 },
+            { 0, 1, 0, 1, 1, 0, 1, 0, 1, 0, 1, 0, 0, 1, 0, 1 },
+            { 0, 1, 1, 1, 0, 0, 1, 1, 1, 1, 0, 0, 1, 1, 1, 0 },
+            { 0, 0, 0, 1, 0, 0, 1, 1, 1, 1, 0, 0, 1, 0, 0, 0 },
+            { 0, 0, 1, 1, 0, 0, 1, 0, 0, 1, 0, 0, 1, 1, 0, 0 },
+            { 0, 0, 1, 1, 1, 0, 1, 1, 1, 1, 0, 1, 1, 1, 0, 0 },
+            { 0, 1, 1, 0, 1, 0, 0, 1, 1, 0, 0, 1, 0, 1, 1, 0 },
+            { 0, 0, 1, 1, 1, 1, 0, 0, 1, 1, 0, 0, 0, 0, 1, 1 },
+            { 0, 1, 1, 0, 0, 1, 1, 0, 1, 0, 0, 1, 1, 0, 0, 1 },
+            { 0, 0, 0, 0, 0, 1, 1, 0, 0, 1, 1, 0, 0, 0, 0, 0 },
+            { 0, 1, 0, 0, 1, 1, 1, 0, 0, 1, 0, 0, 0, 0, 0, 0 },
+            { 0, 0, 1, 0, 0, 1, 1, 1, 0, 0, 1, 0, 0, 0, 0, 0 },
+            { 0, 0, 0, 0, 0, 0, 1, 0, 0, 1, 1, 1, 0, 0, 1, 0 },
+            { 0, 0, 0, 0, 0, 1, 0, 0, 1, 1, 1, 0, 0, 1, 0, 0 },
+            { 0, 1, 1, 0, 1, 1, 0, 0, 1, 0, 0, 1, 0, 0, 1, 1 },
+            { 0, 0, 1, 1, 0, 1, 1, 0, 1, 1, 0, 0, 1, 0, 0, 1 },
+            { 0, 1, 1, 0, 0, 0, 1, 1, 1, 0, 0, 1, 1, 1, 0, 0 },
+            { 0, 0, 1, 1, 1, 0, 0, 1, 1, 1, 0, 0, 0, 1, 1, 0 },
+            { 0, 1, 1, 0, 1, 1, 0, 0, 1, 1, 0, 0, 1, 0, 0, 1 },
+            { 0, 1, 1, 0, 0, 0, 1, 1, 0, 0, 1, 1, 1, 0, 0, 1 },
+            { 0, 1, 1, 1, 1, 1, 1, 0, 1, 0, 0, 0, 0, 0, 0, 1 },
+            { 0, 0, 0, 1, 1, 0, 0, 0, 1, 1, 1, 0, 0, 1, 1, 1 },
+            { 0, 0, 0, 0, 1, 1, 1, 1, 0, 0, 1, 1, 0, 0, 1, 1 },
+            { 0, 0, 1, 1, 0, 0, 1, 1, 1, 1, 1, 1, 0, 0, 0, 0 },
+            { 0, 0, 1, 0, 0, 0, 1, 0, 1, 1, 1, 0, 1, 1, 1, 0 },
+            { 0, 1, 0, 0, 0, 1, 0, 0, 0, 1, 1, 1, 0, 1, 1, 1 }
+    };
+    private static final int[][] P3 = {
+            { 0, 0, 1, 1, 0, 0, 1, 1, 0, 2, 2, 1, 2, 2, 2, 2 },
+            { 0, 0, 0, 1, 0, 0, 1, 1, 2, 2, 1, 1, 2, 2, 2, 1 },
+            { 0, 0, 0, 0, 2, 0, 0, 1, 2, 2, 1, 1, 2, 2, 1, 1 },
+            { 0, 2, 2, 2, 0, 0, 2, 2, 0, 0, 1, 1, 0, 1, 1, 1 },
+            { 0, 0, 0, 0, 0, 0, 0, 0, 1, 1, 2, 2, 1, 1, 2, 2 },
+            { 0, 0, 1, 1, 0, 0, 1, 1, 0, 0, 2, 2, 0, 0, 2, 2 },
+            { 0, 0, 2, 2, 0, 0, 2, 2, 1, 1, 1, 1, 1, 1, 1, 1 },
+            { 0, 0, 1, 1, 0, 0, 1, 1, 2, 2, 1, 1, 2, 2, 1, 1 },
+            { 0, 0, 0, 0, 0, 0, 0, 0, 1, 1, 1, 1, 2, 2, 2, 2 },
+            { 0, 0, 0, 0, 1, 1, 1, 1, 1, 1, 1, 1, 2, 2, 2, 2 },
+            { 0, 0, 0, 0, 1, 1, 1, 1, 2, 2, 2, 2, 2, 2, 2, 2 },
+            { 0, 0, 1, 2, 0, 0, 1, 2, 0, 0, 1, 2, 0, 0, 1, 2 },
+            { 0, 1, 1, 2, 0, 1, 1, 2, 0, 1, 1, 2, 0, 1, 1, 2 },
+            { 0, 1, 2, 2, 0, 1, 2, 2, 0, 1, 2, 2, 0, 1, 2, 2 },
+            { 0, 0, 1, 1, 0, 1, 1, 2, 1, 1, 2, 2, 1, 2, 2, 2 },
+            { 0, 0, 1, 1, 2, 0, 0, 1, 2, 2, 0, 0, 2, 2, 2, 0 },
+            { 0, 0, 0, 1, 0, 0, 1, 1, 0, 1, 1, 2, 1, 1, 2, 2 },
+            { 0, 1, 1, 1, 0, 0, 1, 1, 2, 0, 0, 1, 2, 2, 0, 0 },
+            { 0, 0, 0, 0, 1, 1, 2, 2, 1, 1, 2, 2, 1, 1, 2, 2 },
+            { 0, 0, 2, 2, 0, 0, 2, 2, 0, 0, 2, 2, 1, 1, 1, 1 },
+            { 0, 1, 1, 1, 0, 1, 1, 1, 0, 2, 2, 2, 0, 2, 2, 2 },
+            { 0, 0, 0, 1, 0, 0, 0, 1, 2, 2, 2, 1, 2, 2, 2, 1 },
+            { 0, 0, 0, 0, 0, 0, 1, 1, 0, 1, 2, 2, 0, 1, 2, 2 },
+            { 0, 0, 0, 0, 1, 1, 0, 0, 2, 2, 1, 0, 2, 2, 1, 0 },
+            { 0, 1, 2, 2, 0, 1, 2, 2, 0, 0, 1, 1, 0, 0, 0, 0 },
+            { 0, 0, 1, 2, 0, 0, 1, 2, 1, 1, 2, 2, 2, 2, 2, 2 },
+            { 0, 1, 1, 0, 1, 2, 2, 1, 1, 2, 2, 1, 0, 1, 1, 0 },
+            { 0, 0, 0, 0, 0, 1, 1, 0, 1, 2, 2, 1, 1, 2, 2, 1 },
+            { 0, 0, 2, 2, 1, 1, 0, 2, 1, 1, 0, 2, 0, 0, 2, 2 },
+            { 0, 1, 1, 0, 0, 1, 1, 0, 2, 0, 0, 2, 2, 2, 2, 2 },
+            { 0, 0, 1, 1, 0, 1, 2, 2, 0, 1, 2, 2, 0, 0, 1, 1 },
+            { 0, 0, 0, 0, 2, 0, 0, 0, 2, 2, 1, 1, 2, 2, 2, 1 },
+            { 0, 0, 0, 0, 0, 0, 0, 2, 1, 1, 2, 2, 1, 2, 2, 2 },
+            { 0, 2, 2, 2, 0, 0, 2, 2, 0, 0, 1, 2, 0, 0, 1, 1 },
+            { 0, 0, 1, 1, 0, 0, 1, 2, 0, 0, 2, 2, 0, 2, 2, 2 },
+            { 0, 1, 2, 0, 0, 1, 2, 0, 0, 1, 2, 0, 0, 1, 2, 0 },
+            { 0, 0, 0, 0, 1, 1, 1, 1, 2, 2, 2, 2, 0, 0, 0, 0 },
+            { 0, 1, 2, 0, 1, 2, 0, 1, 2, 0, 1, 2, 0, 1, 2, 0 },
+            { 0, 1, 2, 0, 2, 0, 1, 2, 1, 2, 0, 1, 0, 1, 2, 0 },
+            { 0, 0, 1, 1, 2, 2, 0, 0, 1, 1, 2, 2, 0, 0, 1, 1 },
+            { 0, 0, 1, 1, 1, 1, 2, 2, 2, 2, 0, 0, 0, 0, 1, 1 },
+            { 0, 1, 0, 1, 0, 1, 0, 1, 2, 2, 2, 2, 2, 2, 2, 2 },
+            { 0, 0, 0, 0, 0, 0, 0, 0, 2, 1, 2, 1, 2, 1, 2, 1 },
+            { 0, 0, 2, 2, 1, 1, 2, 2, 0, 0, 2, 2, 1, 1, 2, 2 },
+            { 0, 0, 2, 2, 0, 0, 1, 1, 0, 0, 2, 2, 0, 0, 1, 1 },
+            { 0, 2, 2, 0, 1, 2, 2, 1, 0, 2, 2, 0, 1, 2, 2, 1 },
+            { 0, 1, 0, 1, 2, 2, 2, 2, 2, 2, 2, 2, 0, 1, 0, 1 },
+            { 0, 0, 0, 0, 2, 1, 2, 1, 2, 1, 2, 1, 2, 1, 2, 1 },
+            { 0, 1, 0, 1, 0, 1, 0, 1, 0, 1, 0, 1, 2, 2, 2, 2 },
+            { 0, 2, 2, 2, 0, 1, 1, 1, 0, 2, 2, 2, 0, 1, 1, 1 },
+            { 0, 0, 0, 2, 1, 1, 1, 2, 0, 0, 0, 2, 1, 1, 1, 2 },
+            { 0, 0, 0, 0, 2, 1, 1, 2, 2, 1, 1, 2, 2, 1, 1, 2 },
+            { 0, 2, 2, 2, 0, 1, 1, 1, 0, 1, 1, 1, 0, 2, 2, 2 },
+            { 0, 0, 0, 2, 1, 1, 1, 2, 1, 1, 1, 2, 0, 0, 0, 2 },
+            { 0, 1, 1, 0, 0, 1, 1, 0, 0, 1, 1, 0, 2, 2, 2, 2 },
+            { 0, 0, 0, 0, 0, 0, 0, 0, 2, 1, 1, 2, 2, 1, 1, 2 },
+            { 0, 1, 1, 0, 0, 1, 1, 0, 2, 2, 2, 2, 2, 2, 2, 2 },
+            { 0, 0, 2, 2, 0, 0, 1, 1, 0, 0, 1, 1, 0, 0, 2, 2 },
+            { 0, 0, 2, 2, 1, 1, 2, 2, 1, 1, 2, 2, 0, 0, 2, 2 },
+            { 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 2, 1, 1, 2 },
+            { 0, 0, 0, 2, 0, 0, 0, 1, 0, 0, 0, 2, 0, 0, 0, 1 },
+            { 0, 2, 2, 2, 1, 2, 2, 2, 0, 2, 2, 2, 1, 2, 2, 2 },
+            { 0, 1, 0, 1, 2, 2, 2, 2, 2, 2, 2, 2, 2, 2, 2, 2 },
+            { 0, 1, 1, 1, 2, 0, 1, 1, 2, 2, 0, 1, 2, 2, 2, 0 },
+    };
+
+    private static final int[] A2 = new int[] {
+            15, 15, 15, 15, 15, 15, 15, 15,
+            15, 15, 15, 15, 15, 15, 15, 15,
+            15, 2, 8, 2, 2, 8, 8, 15,
+            2, 8, 2, 2, 8, 8, 2, 2,
+            15, 15, 6, 8, 2, 8, 15, 15,
+            2, 8, 2, 2, 2, 15, 15, 6,
+            6, 2, 6, 8, 15, 15, 2, 2,
+            15, 15, 15, 15, 15, 2, 2, 15
+    };
+    private static final int[] A3_A = new int[] {
+            3, 3, 15, 15, 8, 3, 15, 15,
+            8, 8, 6, 6, 6, 5, 3, 3,
+            3, 3, 8, 15, 3, 3, 6, 10,
+            5, 8, 8, 6, 8, 5, 15, 15,
+            8, 15, 3, 5, 6, 10, 8, 15,
+            15, 3, 15, 5, 15, 15, 15, 15,
+            3, 15, 5, 5, 5, 8, 5, 10,
+            5, 10, 8, 13, 15, 12, 3, 3
+    };
+    private static final int[] A3_B = new int[] {
+            15, 8, 8, 3, 15, 15, 3, 8,
+            15, 15, 15, 15, 15, 15, 15, 8,
+            15, 8, 15, 3, 15, 8, 15, 8,
+            3, 15, 6, 10, 15, 15, 10, 8,
+            15, 3, 15, 10, 10, 8, 9, 10,
+            6, 15, 8, 15, 3, 6, 6, 8,
+            15, 3, 15, 15, 15, 15, 15, 15,
+            15, 15, 15, 15, 3, 15, 15, 8
+    };
+
+    private static final int[] I1 = { 0, 64 };
+    private static final int[] I2 = { 0, 21, 43, 64 };
+    private static final int[] I3 = { 0, 9, 18, 27, 37, 46, 55, 64 };
+    private static final int[] I4 = { 0, 4, 9, 13, 17, 21, 26, 30, 34, 38, 43, 47, 51, 55, 60, 64 };
+    private static final int[][] I = { I1, I2, I3, I4 };
+}
@@ -0,0 +1,234 @@
+package io.github.ititus.dds.internal;
+
+import io.github.ititus.dds.*;
+
+import static io.github.ititus.dds.DdsConstants.*;
+
+/**
+ * Bit masks of the channels of a pixel after decompression.
+ * Uncompressed formats keep the layout of the file, block compressed formats are decoded to 32-bit ARGB.
+ *
+ * @param bitCount number of bits per pixel
+ */
+public record ChannelMasks(
+        boolean sRGB,
+        int bitCount,
+        int red,
+        int green,
+        int blue,
+        int alpha,
+        boolean alphaPremultiplied
+) {
+
+    public static ChannelMasks of(DdsHeader header, DdsHeaderDxt10 header10) {
+        if (header10 != null) {
+            return of(header10.dxgiFormat(), header10.isAlphaPremultiplied());
+        }
+
+        return of(header.ddspf());
+    }
+
+    private static ChannelMasks of(DdsPixelformat pf) {
+        // shortcuts to not have to derive the dxgi/d3d format first
+        int f = pf.dwFlags();
+        if ((f & DDPF_RGB) == DDPF_RGB) {
+            return new ChannelMasks(
+                    false,
+                    pf.dwRGBBitCount(),
+                    pf.dwRBitMask(),
+                    pf.dwGBitMask(),
+                    pf.dwBBitMask(),
+                    pf.dwABitMask(),
+                    false
+            );
+        } else if ((f & DDPF_ALPHA) == DDPF_ALPHA) {
+            return new ChannelMasks(
+                    false,
+                    pf.dwRGBBitCount(),
+                    0,
+                    0,
+                    0,
+                    pf.dwABitMask() == 0 ? (1 << pf.dwRGBBitCount()) - 1 : pf.dwABitMask(),
+                    false
+            );
+        } else if (isBlockCompressed(pf)) {
+            // special case for block compressed formats derived from the fourCC code
+            // because of the alphaPremultiplied check
+            return new ChannelMasks(
+                    false,
+                    32,
+                    0x00ff0000,
+                    0x0000ff00,
+                    0x000000ff,
+                    0xff000000,
+                    pf.dwFourCC() == D3DFMT_DXT2 || pf.dwFourCC() == D3DFMT_DXT4
+            );
+        }
+
+        DxgiFormat dxgiFormat = pf.deriveDxgiFormat();
+        if (dxgiFormat != DxgiFormat.UNKNOWN) {
+            try {
+                return of(dxgiFormat, false);
+            } catch (Exception e) {
+                throw new UnsupportedOperationException("unsupported format " + pf, e);
+            }
+        } else {
+            D3dFormat d3dFormat = pf.deriveD3dFormat();
+            if (d3dFormat != D3dFormat.UNKNOWN) {
+                try {
+                    return of(d3dFormat);
+                } catch (Exception e) {
+                    throw new UnsupportedOperationException("unsupported format " + pf, e);
+                }
+            }
+        }
+
+        throw new UnsupportedOperationException("unsupported format " + pf);
+    }
+
+    private static ChannelMasks of(D3dFormat format) {
+        // TODO: implement some fallbacks
+        throw new UnsupportedOperationException("unsupported format " + format);
+    }
+
+    private static ChannelMasks of(DxgiFormat format, boolean alphaPremultiplied) {
+        return switch (format) {
+            case R10G10B10A2_UNORM, R10G10B10A2_UINT -> new ChannelMasks(
+                    format.isSRGB(),
+                    format.getBitsPerPixel(),
+                    0x000003ff,
+                    0x000ffc00,
+                    0x3ff00000,
+                    0xc0000000,
+                    alphaPremultiplied
+            );
+            case R8G8B8A8_UNORM, R8G8B8A8_UNORM_SRGB, R8G8B8A8_UINT -> new ChannelMasks(
+                    format.isSRGB(),
+                    format.getBitsPerPixel(),
+                    0x000000ff,
+                    0x0000ff00,
+                    0x00ff0000,
+                    0xff000000,
+                    alphaPremultiplied
+            );
+            case R16G16_UNORM, R16G16_UINT -> new ChannelMasks(
+                    format.isSRGB(),
+                    format.getBitsPerPixel(),
+                    0x0000ffff,
+                    0xffff0000,
+                    0,
+                    0,
+                    alphaPremultiplied
+            );
+            case R32_UINT -> new ChannelMasks(
+                    format.isSRGB(),
+                    format.getBitsPerPixel(),
+                    0xffffffff,
+                    0,
+                    0,
+                    0,
+                    alphaPremultiplied
+            );
+            case R8G8_UNORM, R8G8_UINT -> new ChannelMasks(
+                    format.isSRGB(),
+                    format.getBitsPerPixel(),
+                    0x00ff,
+                    0xff00,
+                    0,
+                    0,
+                    alphaPremultiplied
+            );
+            case R16_UNORM, R16_UINT -> new ChannelMasks(
+                    format.isSRGB(),
+                    format.getBitsPerPixel(),
+                    0xffff,
+                    0,
+                    0,
+                    0,
+                    alphaPremultiplied
+            );
+            case R8_UNORM, R8_UINT -> new ChannelMasks(
+                    format.isSRGB(),
+                    format.getBitsPerPixel(),
+                    0xff,
+                    0,
+                    0,
+                    0,
+                    alphaPremultiplied
+            );
+            case A8_UNORM -> new ChannelMasks(
+                    format.isSRGB(),
+                    format.getBitsPerPixel(),
+                    0,
+                    0,
+                    0,
+                    0xff,
+                    alphaPremultiplied
+            );
+            case B5G6R5_UNORM -> new ChannelMasks(
+                    format.isSRGB(),
+                    format.getBitsPerPixel(),
+                    0xf800,
+                    0x07e0,
+                    0x001f,
+                    0,
+                    alphaPremultiplied
+            );
+            case B5G5R5A1_UNORM -> new ChannelMasks(
+                    format.isSRGB(),
+                    format.getBitsPerPixel(),
+                    0x7c00,
+                    0x03e0,
+                    0x001f,
+                    0x8000,
+                    alphaPremultiplied
+            );
+            case B8G8R8A8_UNORM, B8G8R8X8_UNORM, B8G8R8A8_UNORM_SRGB, B8G8R8X8_UNORM_SRGB -> new ChannelMasks(
+                    format.isSRGB(),
+                    format.getBitsPerPixel(),
+                    0x00ff0000,
+                    0x0000ff00,
+                    0x000000ff,
+                    switch (format) {
+                        case B8G8R8X8_UNORM, B8G8R8X8_UNORM_SRGB -> 0;
+                        default -> 0xff000000;
+                    },
+                    alphaPremultiplied
+            );
+            case B4G4R4A4_UNORM -> new ChannelMasks(
+                    format.isSRGB(),
+                    format.getBitsPerPixel(),
+                    0x0f00,
+                    0x00f0,
+                    0x000f,
+                    0xf000,
+                    alphaPremultiplied
+            );
+            case BC1_UNORM, BC1_UNORM_SRGB,
+                 BC2_UNORM, BC2_UNORM_SRGB,
+                 BC3_UNORM, BC3_UNORM_SRGB,
+                 BC7_UNORM, BC7_UNORM_SRGB -> new ChannelMasks(
+                    format.isSRGB(),
+                    32,
+                    0x00ff0000,
+                    0x0000ff00,
+                    0x000000ff,
+                    // technically BC1 and BC7 can have no alpha per compression block, but we ignore that here
+                    0xff000000,
+                    alphaPremultiplied
+            );
+            default -> throw new UnsupportedOperationException("unsupported format " + format);
+        };
+    }
+
+    private static boolean isBlockCompressed(DdsPixelformat pf) {
+        if ((pf.dwFlags() & DDPF_FOURCC) == DDPF_FOURCC) {
+            int fcc = pf.dwFourCC();
+            return fcc == D3DFMT_DXT1 || fcc == D3DFMT_DXT2 || fcc == D3DFMT_DXT3 || fcc == D3DFMT_DXT4 || fcc == D3DFMT_DXT5
+                    || fcc == DXGI_FORMAT_BC4_UNORM || fcc == DXGI_FORMAT_BC4_UNORM_ALT || fcc == DXGI_FORMAT_BC4_SNORM
+                    || fcc == DXGI_FORMAT_BC5_UNORM || fcc == DXGI_FORMAT_BC5_SNORM;
+        }
+
+        return false;
+    }
+}
@@ -0,0 +1,81 @@
+package io.github.ititus.dds.internal;
+
+import io.github.ititus.dds.DdsLayout;
+import io.github.ititus.dds.DdsResource;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.util.AbstractList;
+import java.util.RandomAccess;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Resource list that only loads a resource when it is first accessed.
+ * Closing it closes the underlying source and drops all references to loaded resources.
+ */
+public final class LazyResourceList extends AbstractList<DdsResource> implements RandomAccess, Closeable {
+
+    private final DdsLayout layout;
+    private final Closeable source;
+    private volatile Loader loader;
+    private volatile AtomicReferenceArray<DdsResource> resources;
+
+    /**
+     * @param source closed together with this list, may be {@code null}
+     */
+    public LazyResourceList(DdsLayout layout, Loader loader, Closeable source) {
+        this.layout = layout;
+        this.source = source;
+        this.loader = loader;
+        this.resources = new AtomicReferenceArray<>(layout.getResourceCount());
+    }
+
+    @Override
+    public DdsResource get(int index) {
+        Loader loader = this.loader;
+        AtomicReferenceArray<DdsResource> resources = this.resources;
+        if (loader == null || resources == null) {
+            throw new IllegalStateException("dds file already closed");
+        }
+
+        DdsResource resource = resources.get(index);
+        if (resource == null) {
+            try {
+                resource = DdsResource.of(layout, index, loader.load(layout.getOffset(index), layout.getSize(index)));
+            } catch (IOException e) {
+                throw new UncheckedIOException("could not load dds resource " + index, e);
+            }
+
+            if (!resources.compareAndSet(index, null, resource)) {
+                resource = resources.get(index);
+            }
+        }
+
+        return resource;
+    }
+
+    @Override
+    public int size() {
+        return layout.getResourceCount();
+    }
+
+    @Override
+    public void close() throws IOException {
+        loader = null;
+        resources = null;
+        if (source != null) {
+            source.close();
+        }
+    }
+
+    @FunctionalInterface
+    public interface Loader {
+
+        /**
+         * @param offset offset of the resource relative to the start of the payload
+         */
+        ByteBuffer load(long offset, int size) throws IOException;
+    }
+}
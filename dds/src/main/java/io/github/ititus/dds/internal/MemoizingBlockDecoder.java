@@ -0,0 +1,98 @@
+package io.github.ititus.dds.internal;
+
+import io.github.ititus.dds.DdsBlockStatistics;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * Block decoder that fills solid blocks directly and copies repeated blocks from a small direct-mapped cache keyed by
+ * the raw block value, instead of decoding them again.
+ * <p>
+ * Instances are stateful and must not be shared between threads.
+ */
+final class MemoizingBlockDecoder implements BC.BlockRowDecoder {
+
+    private static final int CACHE_BITS = 8;
+    private static final int CACHE_SIZE = 1 << CACHE_BITS;
+
+    private final BC.BlockDecoder decoder;
+    private final int blockSize;
+    private final SolidColor solidColor;
+
+    private final long[] keysLo = new long[CACHE_SIZE];
+    private final long[] keysHi = new long[CACHE_SIZE];
+    private final boolean[] filled = new boolean[CACHE_SIZE];
+    private final int[] texels = new int[16 * CACHE_SIZE];
+    private final int[] decoded = new int[16];
+
+    private long blocks;
+    private long solidBlocks;
+    private long cachedBlocks;
+
+    /**
+     * @param blockSize  size of a block in bytes, {@code 8} or {@code 16}
+     * @param solidColor detects solid blocks, {@code null} to only use the cache
+     */
+    MemoizingBlockDecoder(BC.BlockDecoder decoder, int blockSize, SolidColor solidColor) {
+        this.decoder = decoder;
+        this.blockSize = blockSize;
+        this.solidColor = solidColor;
+    }
+
+    private static int slot(long lo, long hi) {
+        long hash = (lo * 0x9E3779B97F4A7C15L ^ hi) * 0xC2B2AE3D27D4EB4FL;
+        return (int) (hash >>> (Long.SIZE - CACHE_BITS));
+    }
+
+    @Override
+    public void decode(ByteBuffer in, int blocks, int[] out) {
+        for (int i = 0, offset = 0; i < blocks; i++, offset += 16) {
+            int pos = in.position();
+            long lo = in.getLong(pos);
+            long hi = blockSize > Long.BYTES ? in.getLong(pos + Long.BYTES) : 0;
+
+            if (solidColor != null) {
+                long color = solidColor.get(lo, hi);
+                if (color != BC.NOT_SOLID) {
+                    Arrays.fill(out, offset, offset + 16, (int) color);
+                    in.position(pos + blockSize);
+                    solidBlocks++;
+                    continue;
+                }
+            }
+
+            int slot = slot(lo, hi);
+            if (filled[slot] && keysLo[slot] == lo && keysHi[slot] == hi) {
+                System.arraycopy(texels, 16 * slot, out, offset, 16);
+                in.position(pos + blockSize);
+                cachedBlocks++;
+                continue;
+            }
+
+            decoder.decode(in, decoded);
+            System.arraycopy(decoded, 0, out, offset, 16);
+            System.arraycopy(decoded, 0, texels, 16 * slot, 16);
+            keysLo[slot] = lo;
+            keysHi[slot] = hi;
+            filled[slot] = true;
+        }
+
+        this.blocks += blocks;
+    }
+
+    DdsBlockStatistics statistics() {
+        return new DdsBlockStatistics(blocks, solidBlocks, cachedBlocks);
+    }
+
+    @FunctionalInterface
+    interface SolidColor {
+
+        /**
+         * @param lo first 8 bytes of the block
+         * @param hi last 8 bytes of the block, {@code 0} for 8 byte blocks
+         * @return the color of every texel, {@link BC#NOT_SOLID} if the texels differ
+         */
+        long get(long lo, long hi);
+    }
+}
@@ -0,0 +1,100 @@
+package io.github.ititus.dds.internal;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Converts uncompressed pixels of 8, 16, 24 or 32 bits to ARGB, by extracting each channel with its mask and scaling
+ * it to 8 bits.
+ * Missing color channels are {@code 0}, a missing alpha channel is opaque.
+ */
+public final class PackedDecoder {
+
+    private final int bytesPerPixel;
+    private final Channel red;
+    private final Channel green;
+    private final Channel blue;
+    private final Channel alpha;
+
+    public PackedDecoder(ChannelMasks masks) {
+        if (masks.bitCount() % Byte.SIZE != 0 || masks.bitCount() <= 0 || masks.bitCount() > Integer.SIZE) {
+            throw new UnsupportedOperationException("unsupported bpp " + masks.bitCount() + " for assumed simple format");
+        }
+
+        this.bytesPerPixel = masks.bitCount() / Byte.SIZE;
+        this.red = new Channel(masks.red(), 0);
+        this.green = new Channel(masks.green(), 0);
+        this.blue = new Channel(masks.blue(), 0);
+        this.alpha = new Channel(masks.alpha(), 0xff);
+    }
+
+    /**
+     * Decodes the next {@code rows} rows of a surface of the given width.
+     *
+     * @param b      little-endian buffer positioned at the first pixel of the first row, left positioned after the
+     *               last row
+     * @param origin index of the top left pixel in the array
+     * @param stride distance between two rows in the array
+     */
+    public void decodeRows(ByteBuffer b, int w, int rows, int[] data, int origin, int stride) {
+        int offset = b.position();
+        for (int y = 0; y < rows; y++) {
+            int dst = origin + y * stride;
+            for (int x = 0; x < w; x++, offset += bytesPerPixel) {
+                data[dst + x] = argb(read(b, offset));
+            }
+        }
+
+        b.position(offset);
+    }
+
+    private int read(ByteBuffer b, int offset) {
+        return switch (bytesPerPixel) {
+            case 1 -> Byte.toUnsignedInt(b.get(offset));
+            case 2 -> Short.toUnsignedInt(b.getShort(offset));
+            case 3 -> Byte.toUnsignedInt(b.get(offset)) | Byte.toUnsignedInt(b.get(offset + 1)) << 8 | Byte.toUnsignedInt(b.get(offset + 2)) << 16;
+            default -> b.getInt(offset);
+        };
+    }
+
+    private int argb(int pixel) {
+        return alpha.get(pixel) << 24 | red.get(pixel) << 16 | green.get(pixel) << 8 | blue.get(pixel);
+    }
+
+    private static final class Channel {
+
+        private final int mask;
+        private final int shift;
+        private final int bits;
+        private final int missing;
+        private final int[] table;
+
+        /**
+         * @param missing value if the mask is empty
+         */
+        Channel(int mask, int missing) {
+            this.mask = mask;
+            this.shift = Integer.numberOfTrailingZeros(mask);
+            this.bits = Integer.bitCount(mask);
+            this.missing = missing;
+            if (mask != 0 && bits < Byte.SIZE) {
+                // scale narrow channels exactly, e.g. 5 bits to 8 bits
+                int max = (1 << bits) - 1;
+                this.table = new int[max + 1];
+                for (int v = 0; v <= max; v++) {
+                    table[v] = (v * 255 + max / 2) / max;
+                }
+            } else {
+                this.table = null;
+            }
+        }
+
+        int get(int pixel) {
+            if (mask == 0) {
+                return missing;
+            }
+
+            int v = (pixel & mask) >>> shift;
+            return table != null ? table[v] : v >>> (bits - Byte.SIZE);
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package io.github.ititus.dds.internal;
+
+import io.github.ititus.dds.DdsBufferAllocator;
+
+import java.nio.ByteBuffer;
+import java.util.StringJoiner;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Keeps released buffers in one pool per power-of-two size class, up to a limit on their combined capacity.
+ * Buffers larger than the largest size class are never pooled.
+ */
+public final class PooledBufferAllocator implements DdsBufferAllocator {
+
+    private static final int MAX_SIZE_CLASS = 30;
+
+    private final long maxPooledBytes;
+    private final boolean direct;
+    private final ConcurrentLinkedDeque<ByteBuffer>[] pools;
+    private final AtomicLong pooledBytes;
+
+    @SuppressWarnings("unchecked")
+    public PooledBufferAllocator(long maxPooledBytes, boolean direct) {
+        if (maxPooledBytes < 0) {
+            throw new IllegalArgumentException("maxPooledBytes must not be negative");
+        }
+
+        this.maxPooledBytes = maxPooledBytes;
+        this.direct = direct;
+        this.pools = new ConcurrentLinkedDeque[MAX_SIZE_CLASS + 1];
+        for (int i = 0; i < pools.length; i++) {
+            pools[i] = new ConcurrentLinkedDeque<>();
+        }
+        this.pooledBytes = new AtomicLong();
+    }
+
+    private static int sizeClass(int size) {
+        return size <= 1 ? 0 : Integer.SIZE - Integer.numberOfLeadingZeros(size - 1);
+    }
+
+    @Override
+    public ByteBuffer allocate(int size) {
+        if (size < 0) {
+            throw new IllegalArgumentException("size must not be negative");
+        }
+
+        int sizeClass = sizeClass(size);
+        if (sizeClass > MAX_SIZE_CLASS) {
+            return allocateExact(size);
+        }
+
+        ByteBuffer buf = pools[sizeClass].pollFirst();
+        if (buf != null) {
+            pooledBytes.addAndGet(-buf.capacity());
+        } else {
+            buf = allocateExact(1 << sizeClass);
+        }
+
+        return buf.clear().limit(size);
+    }
+
+    @Override
+    public void release(ByteBuffer buffer) {
+        int capacity = buffer.capacity();
+        if (Integer.bitCount(capacity) != 1 || buffer.isDirect() != direct || buffer.isReadOnly()) {
+            return;
+        }
+
+        int sizeClass = Integer.numberOfTrailingZeros(capacity);
+        if (sizeClass > MAX_SIZE_CLASS) {
+            return;
+        }
+
+        long current;
+        do {
+            current = pooledBytes.get();
+            if (current + capacity > maxPooledBytes) {
+                return;
+            }
+        } while (!pooledBytes.compareAndSet(current, current + capacity));
+
+        pools[sizeClass].offerFirst(buffer);
+    }
+
+    /**
+     * @return combined capacity of all idle buffers
+     */
+    public long getPooledBytes() {
+        return pooledBytes.get();
+    }
+
+    private ByteBuffer allocateExact(int size) {
+        return direct ? ByteBuffer.allocateDirect(size) : ByteBuffer.allocate(size);
+    }
+
+    @Override
+    public String toString() {
+        StringJoiner j = new StringJoiner(", ", this.getClass().getSimpleName() + "[", "]");
+        j.add("maxPooledBytes=" + maxPooledBytes);
+        j.add("direct=" + direct);
+        j.add("pooledBytes=" + pooledBytes.get());
+        return j.toString();
+    }
+}
@@ -3,8 +3,21 @@ package io.github.ititus.dds.internal;
 import io.github.ititus.dds.DdsConstants;
 import io.github.ititus.dds.PixelFormat;
 
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.AsynchronousFileChannel;
+import java.nio.channels.CompletionHandler;
+import java.nio.channels.FileChannel;
+import java.util.concurrent.CompletableFuture;
+
 public final class Util {
 
+    /**
+     * Size of temporary arrays used to copy data into buffers that are not backed by an array.
+     */
+    public static final int TRANSFER_BUFFER_SIZE = 8192;
+
     private Util() {
     }
 
@@ -44,6 +57,51 @@ public final class Util {
         return 1 + Integer.divideUnsigned(dividend - 1, divisor);
     }
 
+    /**
+     * Fills the remaining space of the target buffer with the bytes starting at the given position of the channel.
+     */
+    public static void readFully(FileChannel ch, ByteBuffer target, long position) throws IOException {
+        int expected = target.remaining();
+        while (target.hasRemaining()) {
+            int n = ch.read(target, position);
+            if (n < 0) {
+                throw new EOFException("expected=" + expected + " actual=" + (expected - target.remaining()));
+            }
+
+            position += n;
+        }
+    }
+
+    /**
+     * Asynchronously fills the remaining space of the target buffer with the bytes starting at the given position of
+     * the channel.
+     *
+     * @return future completed with the flipped target buffer
+     */
+    public static CompletableFuture<ByteBuffer> readFully(AsynchronousFileChannel ch, ByteBuffer target, long position) {
+        CompletableFuture<ByteBuffer> f = new CompletableFuture<>();
+        int expected = target.remaining();
+        ch.read(target, position, position, new CompletionHandler<>() {
+            @Override
+            public void completed(Integer n, Long position) {
+                if (n < 0) {
+                    f.completeExceptionally(new EOFException("expected=" + expected + " actual=" + (expected - target.remaining())));
+                } else if (!target.hasRemaining()) {
+                    f.complete(target.flip());
+                } else if (!f.isDone()) {
+                    ch.read(target, position + n, position + n, this);
+                }
+            }
+
+            @Override
+            public void failed(Throwable e, Long position) {
+                f.completeExceptionally(e);
+            }
+        });
+
+        return f;
+    }
+
     private static boolean isPrintable(String s) {
         for (int i = 0; i < s.length(); i++) {
             char c = s.charAt(i);
@@ -1,4 +1,5 @@
 module io.github.ititus.dds {
     exports io.github.ititus.dds;
     exports io.github.ititus.dds.exception;
+    exports io.github.ititus.dds.internal to io.github.ititus.ddsiio;
 }
@@ -0,0 +1,39 @@
+package io.github.ititus.dds;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DdsBufferAllocatorTest {
+
+    @Test
+    void testPooledReusesSizeClass() {
+        DdsBufferAllocator allocator = DdsBufferAllocator.pooled(1024, false);
+        ByteBuffer a = allocator.allocate(100);
+        assertThat(a.position()).isEqualTo(0);
+        assertThat(a.limit()).isEqualTo(100);
+        assertThat(a.capacity()).isEqualTo(128);
+
+        allocator.release(a);
+        ByteBuffer b = allocator.allocate(120);
+        assertThat(b).isSameAs(a);
+        assertThat(b.limit()).isEqualTo(120);
+
+        assertThat(allocator.allocate(120)).isNotSameAs(a);
+    }
+
+    @Test
+    void testPooledRespectsCap() {
+        DdsBufferAllocator allocator = DdsBufferAllocator.pooled(256, true);
+        ByteBuffer a = allocator.allocate(256);
+        ByteBuffer b = allocator.allocate(256);
+        assertThat(a.isDirect()).isEqualTo(true);
+
+        allocator.release(a);
+        allocator.release(b);
+        assertThat(allocator.allocate(256)).isSameAs(a);
+        assertThat(allocator.allocate(256)).isNotSameAs(b);
+    }
+}
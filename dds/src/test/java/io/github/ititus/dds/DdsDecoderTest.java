@@ -0,0 +1,176 @@
+package io.github.ititus.dds;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.util.Random;
+
+import static io.github.ititus.dds.DdsConstants.*;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class DdsDecoderTest {
+
+    /**
+     * Creates a dds file with a single surface and the given pixel format.
+     */
+    static DdsFile createDds(int width, int height, int flags, int fourCC, int bitCount, int r, int g, int b, int a, byte[] payload) throws IOException {
+        ByteBuffer buf = ByteBuffer.allocate(4 + DdsHeader.SIZE + payload.length).order(ByteOrder.LITTLE_ENDIAN);
+        buf.putInt(DDS_MAGIC);
+        buf.putInt(DdsHeader.SIZE);
+        buf.putInt(DDS_HEADER_FLAGS_TEXTURE);
+        buf.putInt(height);
+        buf.putInt(width);
+        buf.putInt(0);
+        buf.putInt(0);
+        buf.putInt(1);
+        buf.position(buf.position() + 11 * Integer.BYTES);
+        buf.putInt(DdsPixelformat.SIZE);
+        buf.putInt(flags);
+        buf.putInt(fourCC);
+        buf.putInt(bitCount);
+        buf.putInt(r);
+        buf.putInt(g);
+        buf.putInt(b);
+        buf.putInt(a);
+        buf.putInt(DDS_SURFACE_FLAGS_TEXTURE);
+        buf.position(buf.position() + 4 * Integer.BYTES);
+        buf.put(payload);
+        return DdsFile.load(buf.flip());
+    }
+
+    static DdsFile createBc1(int width, int height, long seed) throws IOException {
+        byte[] payload = new byte[8 * ((width + 3) / 4) * ((height + 3) / 4)];
+        new Random(seed).nextBytes(payload);
+        return createDds(width, height, DDPF_FOURCC, D3DFMT_DXT1, 0, 0, 0, 0, 0, payload);
+    }
+
+    private static DdsFile bgra(int... pixels) throws IOException {
+        ByteBuffer payload = ByteBuffer.allocate(4 * pixels.length).order(ByteOrder.LITTLE_ENDIAN);
+        payload.asIntBuffer().put(pixels);
+        return createDds(pixels.length, 1, DDS_RGBA, 0, 32, 0x00ff0000, 0x0000ff00, 0x000000ff, 0xff000000, payload.array());
+    }
+
+    @Test
+    void testUncompressed() throws IOException {
+        DdsFile dds = bgra(0x80112233, 0xFF445566);
+        DdsDecoder decoder = DdsDecoder.of(dds);
+        DdsResource resource = dds.resources().get(0);
+
+        int[] argb = new int[2];
+        decoder.decode(resource, argb, DdsChannelOrder.ARGB);
+        assertThat(argb).containsExactly(0x80112233, 0xFF445566);
+
+        int[] rgba = new int[2];
+        decoder.decode(resource, rgba, DdsChannelOrder.RGBA);
+        assertThat(rgba).containsExactly(0x11223380, 0x445566FF);
+    }
+
+    @Test
+    void testByteBuffer() throws IOException {
+        DdsFile dds = bgra(0x80112233, 0xFF445566);
+        DdsDecoder decoder = DdsDecoder.of(dds);
+
+        // the byte order of the buffer does not matter
+        ByteBuffer out = ByteBuffer.allocateDirect(1 + 8).order(ByteOrder.LITTLE_ENDIAN).position(1);
+        decoder.decode(dds.resources().get(0), out, DdsChannelOrder.RGBA);
+        assertThat(out.position()).isEqualTo(9);
+        byte[] bytes = new byte[8];
+        out.get(1, bytes);
+        assertThat(bytes).isEqualTo(new byte[] {0x11, 0x22, 0x33, (byte) 0x80, 0x44, 0x55, 0x66, (byte) 0xFF});
+
+        assertThatThrownBy(() -> decoder.decode(dds.resources().get(0), ByteBuffer.allocate(7), DdsChannelOrder.RGBA))
+                .isInstanceOf(BufferOverflowException.class);
+    }
+
+    @Test
+    void testScaleChannels() throws IOException {
+        // B5G6R5, white and a dark green
+        byte[] payload = {(byte) 0xFF, (byte) 0xFF, (byte) 0x20, 0x00};
+        DdsFile dds = createDds(2, 1, DDPF_RGB, 0, 16, 0xf800, 0x07e0, 0x001f, 0, payload);
+
+        int[] out = new int[2];
+        DdsDecoder.of(dds).decode(dds.resources().get(0), out, DdsChannelOrder.ARGB);
+        assertThat(out).containsExactly(0xFFFFFFFF, 0xFF000400);
+    }
+
+    @Test
+    void testBlockCompressedBuffers() throws IOException {
+        int w = 30;
+        int h = 41;
+        DdsFile dds = createBc1(w, h, 0);
+        DdsDecoder decoder = DdsDecoder.of(dds);
+        DdsResource resource = dds.resources().get(0);
+
+        int[] expected = new int[w * h];
+        decoder.decode(resource, expected, DdsChannelOrder.RGBA);
+
+        int[] strided = new int[(w + 2) * h + 1];
+        decoder.decode(resource, strided, 1, w + 2, DdsChannelOrder.RGBA);
+        for (int y = 0; y < h; y++) {
+            for (int x = 0; x < w; x++) {
+                assertThat(strided[1 + y * (w + 2) + x]).isEqualTo(expected[y * w + x]);
+            }
+        }
+
+        IntBuffer direct = ByteBuffer.allocateDirect(4 * w * h).order(ByteOrder.nativeOrder()).asIntBuffer();
+        decoder.decode(resource, direct, DdsChannelOrder.RGBA);
+        assertThat(direct.hasRemaining()).isEqualTo(false);
+        int[] actual = new int[w * h];
+        direct.flip().get(actual);
+        assertThat(actual).isEqualTo(expected);
+
+        ByteBuffer bytes = ByteBuffer.allocate(4 * w * h);
+        decoder.decode(resource, bytes, DdsChannelOrder.RGBA);
+        bytes.flip().asIntBuffer().get(actual);
+        assertThat(actual).isEqualTo(expected);
+    }
+
+    @Test
+    void testMipChain() throws IOException {
+        // every byte of a level holds its mipmap level
+        DdsFile dds = DdsFile.load(new ByteArrayInputStream(DdsFileTest.createDds(8, 4, 4)));
+        DdsDecoder decoder = DdsDecoder.of(dds);
+
+        ByteBuffer out = ByteBuffer.allocateDirect(3 + 4 * (32 + 8 + 2 + 1)).position(3);
+        DdsMipChain chain = decoder.decodeMipChain(dds, 0, 0, out);
+        assertThat(chain.buffer()).isSameAs(out);
+        assertThat(out.hasRemaining()).isEqualTo(false);
+        assertThat(chain.offsets()).containsExactly(3, 3 + 128, 3 + 160, 3 + 168);
+        assertThat(chain.levels()).extracting(DdsMipChain.Level::width).containsExactly(8, 4, 2, 1);
+        for (int i = 0; i < chain.levels().size(); i++) {
+            ByteBuffer level = chain.level(i);
+            assertThat(level.remaining()).isEqualTo(chain.levels().get(i).size());
+            while (level.hasRemaining()) {
+                assertThat(level.get()).isEqualTo((byte) i);
+            }
+        }
+
+        assertThatThrownBy(() -> decoder.decodeMipChain(dds, 0, 0, ByteBuffer.allocateDirect(4 * 43 - 1)))
+                .isInstanceOf(BufferOverflowException.class);
+        assertThatThrownBy(() -> decoder.decodeMipChain(dds, 1, 0, ByteBuffer.allocateDirect(4 * 43)))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void testMipChainAllocator() throws IOException {
+        DdsFile dds = DdsFile.load(new ByteArrayInputStream(DdsFileTest.createDds(8, 4, 4)), DdsLoadOptions.DEFAULT.withMipmapLevels(1, 4));
+        DdsBufferAllocator allocator = DdsBufferAllocator.pooled(1024, true);
+
+        DdsMipChain chain = DdsDecoder.of(dds).decodeMipChain(dds, 0, 0, allocator);
+        assertThat(chain.buffer().isDirect()).isEqualTo(true);
+        assertThat(chain.buffer().position()).isEqualTo(0);
+        assertThat(chain.buffer().limit()).isEqualTo(4 * (8 + 2 + 1));
+        assertThat(chain.levels()).extracting(DdsMipChain.Level::mipmapLevel).containsExactly(1, 2, 3);
+        assertThat(chain.offsets()).containsExactly(0, 32, 40);
+        assertThat(chain.level(2).get(0)).isEqualTo((byte) 3);
+
+        allocator.release(chain.buffer());
+        assertThat(allocator.allocate(44)).isSameAs(chain.buffer());
+    }
+}
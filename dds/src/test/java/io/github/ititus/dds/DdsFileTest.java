@@ -1,17 +1,255 @@
 package io.github.ititus.dds;
 
+import io.github.ititus.dds.exception.DdsLoadException;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 
 import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
+import static io.github.ititus.dds.DdsConstants.*;
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
 class DdsFileTest {
 
+    /**
+     * Creates an uncompressed 32-bit BGRA dds file where every byte of the pixel data holds the index of its resource.
+     */
+    static byte[] createDds(int width, int height, int mipMapCount) {
+        int payloadSize = 0;
+        for (int mip = 0, w = width, h = height; mip < mipMapCount; mip++, w = Math.max(1, w / 2), h = Math.max(1, h / 2)) {
+            payloadSize += 4 * w * h;
+        }
+
+        ByteBuffer b = ByteBuffer.allocate(4 + DdsHeader.SIZE + payloadSize).order(ByteOrder.LITTLE_ENDIAN);
+        b.putInt(DDS_MAGIC);
+        b.putInt(DdsHeader.SIZE);
+        b.putInt(DDS_HEADER_FLAGS_TEXTURE | DDS_HEADER_FLAGS_PITCH | (mipMapCount > 1 ? DDS_HEADER_FLAGS_MIPMAP : 0));
+        b.putInt(height);
+        b.putInt(width);
+        b.putInt(4 * width);
+        b.putInt(0);
+        b.putInt(mipMapCount);
+        b.position(b.position() + 11 * Integer.BYTES);
+        b.putInt(DdsPixelformat.SIZE);
+        b.putInt(DDS_RGBA);
+        b.putInt(0);
+        b.putInt(32);
+        b.putInt(0x00ff0000);
+        b.putInt(0x0000ff00);
+        b.putInt(0x000000ff);
+        b.putInt(0xff000000);
+        b.putInt(DDS_SURFACE_FLAGS_TEXTURE | (mipMapCount > 1 ? DDS_SURFACE_FLAGS_MIPMAP : 0));
+        b.position(b.position() + 4 * Integer.BYTES);
+        for (int mip = 0, w = width, h = height; mip < mipMapCount; mip++, w = Math.max(1, w / 2), h = Math.max(1, h / 2)) {
+            for (int i = 0; i < 4 * w * h; i++) {
+                b.put((byte) mip);
+            }
+        }
+
+        return b.array();
+    }
+
     @Test
     void testMissingMagic() {
         ByteArrayInputStream bis = new ByteArrayInputStream(new byte[] {'D', 'A', 'S', ' '});
         assertThatThrownBy(() -> DdsFile.load(bis)).isInstanceOf(IOException.class);
     }
+
+    @Test
+    void testLoadSelectedMipmaps() throws IOException {
+        ByteArrayInputStream bis = new ByteArrayInputStream(createDds(8, 4, 4));
+        DdsFile dds = DdsFile.load(bis, DdsLoadOptions.DEFAULT.withMipmapLevels(1, 3));
+
+        assertThat(dds.resources()).extracting(DdsResource::getMipmapLevel).containsExactly(1, 2);
+        assertThat(dds.resources().get(0).getBuffer().get(0)).isEqualTo((byte) 1);
+        assertThat(dds.resources().get(1).getBuffer().get(0)).isEqualTo((byte) 2);
+        assertThat(dds.resources().get(1).getWidth()).isEqualTo(2);
+    }
+
+    @Test
+    void testLoadDirectBuffers() throws IOException {
+        ByteArrayInputStream bis = new ByteArrayInputStream(createDds(8, 4, 4));
+        DdsFile dds = DdsFile.load(bis, DdsLoadOptions.DEFAULT.withMipmapLevels(1, 4).withDirectBuffers(true));
+
+        assertThat(dds.resources()).extracting(DdsResource::getMipmapLevel).containsExactly(1, 2, 3);
+        for (DdsResource resource : dds.resources()) {
+            ByteBuffer b = resource.getBuffer();
+            assertThat(b.isDirect()).isEqualTo(true);
+            assertThat(b.remaining()).isEqualTo(4 * resource.getWidth() * resource.getHeight());
+            assertThat(b.get(0)).isEqualTo((byte) resource.getMipmapLevel());
+            assertThat(b.get(b.limit() - 1)).isEqualTo((byte) resource.getMipmapLevel());
+        }
+    }
+
+    @Test
+    void testLoadAllocatorReleasedOnClose() throws IOException {
+        List<ByteBuffer> allocated = new ArrayList<>();
+        List<ByteBuffer> released = new ArrayList<>();
+        DdsBufferAllocator allocator = new DdsBufferAllocator() {
+            @Override
+            public ByteBuffer allocate(int size) {
+                ByteBuffer buf = ByteBuffer.allocate(size);
+                allocated.add(buf);
+                return buf;
+            }
+
+            @Override
+            public void release(ByteBuffer buffer) {
+                released.add(buffer);
+            }
+        };
+
+        DdsFile dds = DdsFile.load(new ByteArrayInputStream(createDds(8, 4, 3)), DdsLoadOptions.DEFAULT.withAllocator(allocator));
+        assertThat(allocated).hasSize(1);
+        assertThat(dds.resources().get(2).getBuffer().get(0)).isEqualTo((byte) 2);
+
+        dds.close();
+        assertThat(released).hasSize(1);
+        assertThat(released.get(0)).isSameAs(allocated.get(0));
+        assertThatThrownBy(() -> dds.resources().get(0)).isInstanceOf(IllegalStateException.class);
+
+        dds.close();
+        assertThat(released).hasSize(1);
+    }
+
+    @Test
+    void testLoadChannel(@TempDir Path dir) throws IOException {
+        Path file = dir.resolve("test.dds");
+        Files.write(file, createDds(8, 4, 4));
+
+        try (FileChannel ch = FileChannel.open(file)) {
+            DdsFile dds = DdsFile.load(ch, DdsLoadOptions.DEFAULT.withMipmapLevel(2).withDirectBuffers(true));
+            assertThat(dds.resources()).extracting(DdsResource::getMipmapLevel).containsExactly(2);
+            assertThat(dds.resources().get(0).getBuffer().isDirect()).isEqualTo(true);
+            assertThat(dds.resources().get(0).getBuffer().get(0)).isEqualTo((byte) 2);
+        }
+
+        ReadableByteChannel ch = Channels.newChannel(new ByteArrayInputStream(createDds(8, 4, 4)));
+        DdsFile dds = DdsFile.load(ch, DdsLoadOptions.DEFAULT.withMipmapLevel(3));
+        assertThat(dds.resources()).extracting(DdsResource::getMipmapLevel).containsExactly(3);
+        assertThat(dds.resources().get(0).getBuffer().get(0)).isEqualTo((byte) 3);
+    }
+
+    @Test
+    void testVisit() throws IOException {
+        ByteArrayInputStream bis = new ByteArrayInputStream(createDds(8, 4, 4));
+        List<Integer> levels = new ArrayList<>();
+        List<Integer> sizes = new ArrayList<>();
+        DdsInfo info = DdsFile.visit(bis, DdsLoadOptions.DEFAULT.withMipmapLevels(1, 4), resource -> {
+            ByteBuffer b = resource.getBuffer();
+            assertThat(b.get(0)).isEqualTo((byte) resource.getMipmapLevel());
+            assertThat(b.get(b.limit() - 1)).isEqualTo((byte) resource.getMipmapLevel());
+            levels.add(resource.getMipmapLevel());
+            sizes.add(b.remaining());
+        });
+
+        assertThat(info.resourceCount()).isEqualTo(4);
+        assertThat(levels).containsExactly(1, 2, 3);
+        assertThat(sizes).containsExactly(4 * 4 * 2, 4 * 2 * 1, 4 * 1 * 1);
+    }
+
+    @Test
+    void testLoadBufferSharesMemory() throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap(createDds(8, 4, 3));
+        DdsFile dds = DdsFile.load(buffer);
+
+        assertThat(dds.resourceCount()).isEqualTo(3);
+        buffer.put(buffer.limit() - 1, (byte) 42);
+        ByteBuffer last = dds.resources().get(2).getBuffer();
+        assertThat(last.get(last.limit() - 1)).isEqualTo((byte) 42);
+    }
+
+    @Test
+    void testLoadMapped(@TempDir Path dir) throws IOException {
+        Path file = dir.resolve("test.dds");
+        Files.write(file, createDds(8, 4, 3));
+
+        DdsFile dds = DdsFile.loadMapped(file);
+        assertThat(dds.resources()).extracting(DdsResource::getWidth).containsExactly(8, 4, 2);
+        assertThat(dds.resources().get(1).getBuffer().remaining()).isEqualTo(4 * 4 * 2);
+        assertThat(dds.resources().get(1).getBuffer().get(0)).isEqualTo((byte) 1);
+
+        dds.close();
+        assertThat(dds.resourceCount()).isEqualTo(3);
+        assertThatThrownBy(() -> dds.resources().get(0)).isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    void testLoadLazy(@TempDir Path dir) throws IOException {
+        Path file = dir.resolve("test.dds");
+        Files.write(file, createDds(8, 4, 3));
+
+        try (DdsFile dds = DdsFile.loadLazy(file)) {
+            assertThat(dds.resourceCount()).isEqualTo(3);
+            DdsResource resource = dds.resources().get(2);
+            assertThat(resource.getMipmapLevel()).isEqualTo(2);
+            assertThat(resource.getBuffer().remaining()).isEqualTo(4 * 2 * 1);
+            assertThat(resource.getBuffer().get(0)).isEqualTo((byte) 2);
+            assertThat(dds.resources().get(2)).isSameAs(resource);
+        }
+    }
+
+    @Test
+    void testLoadAsync(@TempDir Path dir) throws Exception {
+        Path file = dir.resolve("test.dds");
+        Files.write(file, createDds(8, 4, 4));
+
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            DdsFile dds = DdsFile.loadAsync(file, DdsLoadOptions.DEFAULT.withMipmapLevels(1, 3), executor).get();
+            assertThat(dds.resources()).extracting(DdsResource::getMipmapLevel).containsExactly(1, 2);
+            assertThat(dds.resources().get(0).getBuffer().get(0)).isEqualTo((byte) 1);
+            assertThat(dds.resources().get(1).getBuffer().get(0)).isEqualTo((byte) 2);
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    void testLoadAsyncTruncated(@TempDir Path dir) throws IOException {
+        Path file = dir.resolve("test.dds");
+        byte[] data = createDds(8, 4, 3);
+        Files.write(file, Arrays.copyOf(data, data.length - 1));
+
+        CompletableFuture<DdsFile> f = DdsFile.loadAsync(file, Runnable::run);
+        assertThatThrownBy(f::join).isInstanceOf(CompletionException.class).hasCauseInstanceOf(DdsLoadException.class);
+    }
+
+    @Test
+    void testLoadAsyncCancelled(@TempDir Path dir) throws IOException {
+        Path file = dir.resolve("test.dds");
+        Files.write(file, createDds(8, 4, 3));
+
+        List<Runnable> tasks = new ArrayList<>();
+        CompletableFuture<DdsFile> f = DdsFile.loadAsync(file, tasks::add);
+        assertThat(f.cancel(true)).isEqualTo(true);
+        tasks.forEach(Runnable::run);
+        assertThat(f.isCancelled()).isEqualTo(true);
+        assertThat(tasks).hasSize(1);
+    }
+
+    @Test
+    void testLoadLazyTruncated(@TempDir Path dir) throws IOException {
+        Path file = dir.resolve("test.dds");
+        byte[] data = createDds(8, 4, 3);
+        Files.write(file, Arrays.copyOf(data, data.length - 1));
+
+        assertThatThrownBy(() -> DdsFile.loadLazy(file)).isInstanceOf(IOException.class);
+    }
 }
@@ -0,0 +1,63 @@
+package io.github.ititus.dds;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import static io.github.ititus.dds.DdsFileTest.createDds;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class DdsInfoTest {
+
+    @Test
+    void testProbeStream() throws IOException {
+        InputStream is = new ByteArrayInputStream(createDds(8, 4, 3));
+        DdsInfo info = DdsInfo.probe(is);
+
+        assertThat(info.derivePixelFormat()).isEqualTo(DxgiFormat.B8G8R8A8_UNORM);
+        assertThat(info.resourceCount()).isEqualTo(3);
+        assertThat(info.payloadSize()).isEqualTo(4 * (8 * 4 + 4 * 2 + 2 * 1));
+        assertThat(info.headerSize()).isEqualTo(128);
+        assertThat(is.available()).isEqualTo(info.payloadSize());
+    }
+
+    @Test
+    void testProbeFileLength(@TempDir Path dir) throws IOException {
+        byte[] data = createDds(8, 4, 3);
+        Path file = dir.resolve("test.dds");
+        Files.write(file, data);
+        assertThat(DdsInfo.probe(file).fileSize()).isEqualTo(data.length);
+
+        Files.write(file, Arrays.copyOf(data, data.length - 1));
+        assertThatThrownBy(() -> DdsInfo.probe(file)).isInstanceOf(IOException.class);
+    }
+
+    @Test
+    void testHeaderIsReadInBulk() throws IOException {
+        DataReader buffer = DataReader.of(ByteBuffer.wrap(createDds(8, 4, 3)));
+        int[] reads = new int[1];
+        DdsInfo info = DdsInfo.load(new DataReader() {
+            @Override
+            public byte readByte() {
+                throw new AssertionError("unexpected single byte read");
+            }
+
+            @Override
+            public ByteBuffer read(int size) throws IOException {
+                reads[0]++;
+                return buffer.read(size);
+            }
+        });
+
+        assertThat(info.width()).isEqualTo(8);
+        assertThat(reads[0]).isEqualTo(1);
+    }
+}
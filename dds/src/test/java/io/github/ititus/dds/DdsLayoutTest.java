@@ -0,0 +1,91 @@
+package io.github.ititus.dds;
+
+import org.junit.jupiter.api.Test;
+
+import static io.github.ititus.dds.DdsConstants.*;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class DdsLayoutTest {
+
+    private static DdsHeader header(int width, int height, int depth, int mipMapCount, int caps2) {
+        return new DdsHeader(
+                DdsHeader.SIZE,
+                DDS_HEADER_FLAGS_TEXTURE | DDS_HEADER_FLAGS_PITCH | DDS_HEADER_FLAGS_MIPMAP | (depth > 1 ? DDS_HEADER_FLAGS_VOLUME : 0),
+                height,
+                width,
+                4 * width,
+                depth,
+                mipMapCount,
+                0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0,
+                new DdsPixelformat(DdsPixelformat.SIZE, DDS_RGBA, 0, 32, 0x00ff0000, 0x0000ff00, 0x000000ff, 0xff000000),
+                DDS_SURFACE_FLAGS_TEXTURE | DDS_SURFACE_FLAGS_MIPMAP,
+                caps2,
+                0,
+                0,
+                0
+        );
+    }
+
+    /**
+     * Checks every index against the straightforward walk over all resources.
+     */
+    private static void assertMatchesWalk(DdsLayout layout, int arraySize, int faces, int width, int height, int depth, int mipMapCount) {
+        int index = 0;
+        long offset = 0;
+        for (int arrayIndex = 0; arrayIndex < arraySize; arrayIndex++) {
+            for (int face = 0; face < faces; face++) {
+                int w = width, h = height, d = depth;
+                for (int mip = 0; mip < mipMapCount; mip++) {
+                    for (int z = 0; z < d; z++) {
+                        assertThat(layout.getArrayIndex(index)).isEqualTo(arrayIndex);
+                        assertThat(layout.getFaceIndex(index)).isEqualTo(face);
+                        assertThat(layout.getMipmapLevel(index)).isEqualTo(mip);
+                        assertThat(layout.getZLevel(index)).isEqualTo(z);
+                        assertThat(layout.getWidth(index)).isEqualTo(w);
+                        assertThat(layout.getHeight(index)).isEqualTo(h);
+                        assertThat(layout.getSize(index)).isEqualTo(4 * w * h);
+                        assertThat(layout.getOffset(index)).isEqualTo(offset);
+                        assertThat(layout.indexOf(arrayIndex, face, mip, z)).isEqualTo(index);
+                        offset += 4L * w * h;
+                        index++;
+                    }
+
+                    w = Math.max(1, w / 2);
+                    h = Math.max(1, h / 2);
+                    d = Math.max(1, d / 2);
+                }
+            }
+        }
+
+        assertThat(layout.getResourceCount()).isEqualTo(index);
+        assertThat(layout.getPayloadSize()).isEqualTo(offset);
+    }
+
+    @Test
+    void testVolumeTexture() {
+        DdsLayout layout = DdsLayout.of(header(8, 4, 4, 4, DDSCAPS2_VOLUME), null);
+        assertMatchesWalk(layout, 1, 1, 8, 4, 4, 4);
+    }
+
+    @Test
+    void testCubemapWithSurplusMipmaps() {
+        DdsLayout layout = DdsLayout.of(header(4, 4, 1, 6, DDS_CUBEMAP_ALLFACES), null);
+        assertMatchesWalk(layout, 1, 6, 4, 4, 1, 6);
+    }
+
+    @Test
+    void testTextureArray() {
+        DdsHeader header = header(16, 8, 1, 5, 0);
+        DdsHeaderDxt10 header10 = new DdsHeaderDxt10(DxgiFormat.B8G8R8A8_UNORM, D3d10ResourceDimension.TEXTURE2D, 0, 3, 0);
+        assertMatchesWalk(DdsLayout.of(header, header10), 3, 1, 16, 8, 1, 5);
+    }
+
+    @Test
+    void testOutOfBounds() {
+        DdsLayout layout = DdsLayout.of(header(4, 4, 1, 3, 0), null);
+        assertThatThrownBy(() -> layout.getOffset(3)).isInstanceOf(IndexOutOfBoundsException.class);
+        assertThatThrownBy(() -> layout.indexOf(0, 0, 3, 0)).isInstanceOf(IndexOutOfBoundsException.class);
+        assertThatThrownBy(() -> layout.indexOf(0, 0, 0, 1)).isInstanceOf(IndexOutOfBoundsException.class);
+    }
+}
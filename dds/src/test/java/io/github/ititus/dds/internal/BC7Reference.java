@@ -1,13 +1,17 @@
-package io.github.ititus.ddsiio.internal;
+package io.github.ititus.dds.internal;
 
 import java.nio.ByteBuffer;
 import java.util.Arrays;
 
-public final class BC7 {
+/**
+ * Straightforward BC7 decoder that reads the block bit by bit.
+ * {@link BC7} is verified and benchmarked against it.
+ */
+final class BC7Reference {
 
-    public static final BC.BlockDecoder DECODER = BC7::decode;
+    public static final BC.BlockDecoder DECODER = BC7Reference::decode;
 
-    private static void decode(ByteBuffer in, int[] out) {
+    static void decode(ByteBuffer in, int[] out) {
         byte[] data = new byte[16];
         in.get(data);
         BitReader reader = new BitReader(data);
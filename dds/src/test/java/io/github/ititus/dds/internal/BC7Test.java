@@ -0,0 +1,36 @@
+package io.github.ititus.dds.internal;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class BC7Test {
+
+    @Test
+    void testMatchesReference() {
+        Random random = new Random(0);
+        byte[] block = new byte[16];
+        int[] expected = new int[16];
+        int[] actual = new int[16];
+        for (int mode = 0; mode <= 8; mode++) {
+            for (int n = 0; n < 10_000; n++) {
+                random.nextBytes(block);
+                // force the mode, mode 8 is reserved and decodes to transparent black
+                int modeBits = mode < 8 ? 1 << mode : 0;
+                block[0] = (byte) ((block[0] & (-2 << mode)) | modeBits);
+
+                ByteBuffer in = ByteBuffer.wrap(block).order(ByteOrder.LITTLE_ENDIAN);
+                BC7Reference.decode(in.duplicate().order(ByteOrder.LITTLE_ENDIAN), expected);
+                BC7.DECODER.decode(in, actual);
+
+                assertEquals(16, in.position());
+                assertArrayEquals(expected, actual, "mode " + mode);
+            }
+        }
+    }
+}
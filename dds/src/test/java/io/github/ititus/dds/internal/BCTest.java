@@ -0,0 +1,177 @@
+package io.github.ititus.dds.internal;
+
+import io.github.ititus.dds.DdsBlockStatistics;
+import io.github.ititus.dds.DxgiFormat;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BCTest {
+
+    private static final int RED = 0xFFFF0000;
+    private static final int BLUE = 0xFF0000FF;
+    private static final int RED_BLUE = 0xFFAA0055;
+    private static final int BLUE_RED = 0xFF5500AA;
+
+    /**
+     * Red and blue endpoints, texels 1 to 3 use palette entries 1 to 3 and texel 4 uses entry 2.
+     */
+    private static ByteBuffer bc1Block() {
+        return ByteBuffer.wrap(new byte[] {0x00, (byte) 0xF8, 0x1F, 0x00, (byte) 0xE4, 0x02, 0x00, 0x00}).order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    @Test
+    void testBC1() {
+        int[] out = new int[16];
+        ByteBuffer in = bc1Block();
+        BC1.decode(in, out);
+
+        assertEquals(8, in.position());
+        assertEquals(RED, out[0]);
+        assertEquals(BLUE, out[1]);
+        assertEquals(RED_BLUE, out[2]);
+        assertEquals(BLUE_RED, out[3]);
+        assertEquals(RED_BLUE, out[4]);
+        assertEquals(RED, out[15]);
+    }
+
+    @Test
+    void testBC3Alpha() {
+        ByteBuffer in = ByteBuffer.allocate(16).order(ByteOrder.LITTLE_ENDIAN);
+        // a0=255, a1=0, texel 0 uses a0, texel 1 uses a1, texel 2 uses the first interpolated value
+        in.put((byte) 0xFF).put((byte) 0x00).put((byte) 0b010_001_000).put((byte) 0);
+        in.position(8);
+        in.put(bc1Block().array());
+        in.flip();
+
+        int[] out = new int[16];
+        BC3.decode(in, out);
+        assertEquals(255, out[0] >>> 24);
+        assertEquals(0, out[1] >>> 24);
+        assertEquals(6 * 255 / 7, out[2] >>> 24);
+        assertEquals(BLUE & 0xFFFFFF, out[1] & 0xFFFFFF);
+    }
+
+    @Test
+    void testPartialBlock() {
+        int[] data = new int[3 * 3];
+        BC.decode(2, 2, bc1Block(), DxgiFormat.BC1_UNORM, data, 4, 3);
+
+        assertEquals(0, data[3]);
+        assertEquals(RED, data[4]);
+        assertEquals(BLUE, data[5]);
+        assertEquals(RED_BLUE, data[7]);
+        assertEquals(RED, data[8]);
+    }
+
+    @Test
+    void testParallel() {
+        int w = 30;
+        int h = 41;
+        int blocks = Util.ceilDivUnsigned(w, 4) * Util.ceilDivUnsigned(h, 4);
+        byte[] data = new byte[16 * blocks];
+        new Random(0).nextBytes(data);
+        for (int i = 0; i < blocks; i++) {
+            // mode 6 blocks
+            data[16 * i] = (byte) ((data[16 * i] & 0x80) | 0x40);
+        }
+
+        int[] sequential = new int[w * h];
+        ByteBuffer b1 = ByteBuffer.wrap(data).order(ByteOrder.LITTLE_ENDIAN);
+        BC.decode(h, w, b1, DxgiFormat.BC7_UNORM, sequential, 0, w);
+
+        int[] parallel = new int[w * h];
+        ByteBuffer b2 = ByteBuffer.wrap(data).order(ByteOrder.LITTLE_ENDIAN);
+        BC.decode(h, w, b2, DxgiFormat.BC7_UNORM, parallel, 0, w, ForkJoinPool.commonPool(), 4);
+
+        assertEquals(b1.position(), b2.position());
+        assertArrayEquals(sequential, parallel);
+    }
+
+    @Test
+    void testSolidColor() {
+        Random random = new Random(0);
+        byte[] data = new byte[16];
+        int[] out = new int[16];
+        int solid = 0;
+        for (int n = 0; n < 100_000; n++) {
+            random.nextBytes(data);
+            ByteBuffer in = ByteBuffer.wrap(data).order(ByteOrder.LITTLE_ENDIAN);
+            long lo = in.getLong(0);
+            long hi = in.getLong(8);
+            // make solid blocks likely: equal endpoints and uniform indices
+            if (random.nextBoolean()) {
+                lo = (lo & ~0xFFFF_0000L) | (lo & 0xFFFF) << 16;
+                hi = (hi & ~0xFFFF_0000L) | (hi & 0xFFFF) << 16;
+            }
+            if (random.nextBoolean()) {
+                lo = (lo & 0xFFFF_FFFFL) | (random.nextInt(4) * 0x5555_5555L) << 32;
+                hi = (hi & 0xFFFF_FFFFL) | (random.nextInt(4) * 0x5555_5555L) << 32;
+            }
+            in.putLong(0, lo).putLong(8, hi);
+
+            long color = BC1.solidColor(lo, true);
+            BC1.decode(in.duplicate().order(ByteOrder.LITTLE_ENDIAN), out);
+            solid += assertSolid(color, out);
+
+            color = BC3.solidColor(lo, hi);
+            BC3.decode(in.duplicate().order(ByteOrder.LITTLE_ENDIAN), out);
+            solid += assertSolid(color, out);
+        }
+
+        assertTrue(solid > 0);
+    }
+
+    private static int assertSolid(long color, int[] texels) {
+        if (color == BC.NOT_SOLID) {
+            return 0;
+        }
+
+        for (int texel : texels) {
+            assertEquals((int) color, texel);
+        }
+
+        return 1;
+    }
+
+    @Test
+    void testMemoized() {
+        int w = 64;
+        int h = 37;
+        int blocks = Util.ceilDivUnsigned(w, 4) * Util.ceilDivUnsigned(h, 4);
+        Random random = new Random(0);
+        byte[][] pool = new byte[4][16];
+        for (byte[] block : pool) {
+            random.nextBytes(block);
+        }
+        // a solid block with equal endpoints and alpha values
+        pool[0] = new byte[] {0x40, 0x40, 0, 0, 0, 0, 0, 0, 0x1F, 0x00, 0x1F, 0x00, 0, 0, 0, 0};
+
+        ByteBuffer data = ByteBuffer.allocate(16 * blocks);
+        for (int i = 0; i < blocks; i++) {
+            data.put(pool[random.nextInt(pool.length)]);
+        }
+
+        int[] expected = new int[w * h];
+        ByteBuffer b1 = ByteBuffer.wrap(data.array()).order(ByteOrder.LITTLE_ENDIAN);
+        BC.decode(h, w, b1, DxgiFormat.BC3_UNORM, expected, 0, w);
+
+        int[] actual = new int[w * h];
+        ByteBuffer b2 = ByteBuffer.wrap(data.array()).order(ByteOrder.LITTLE_ENDIAN);
+        DdsBlockStatistics statistics = BC.decodeMemoized(h, w, b2, DxgiFormat.BC3_UNORM, actual, 0, w, ForkJoinPool.commonPool(), 3);
+
+        assertEquals(b1.position(), b2.position());
+        assertArrayEquals(expected, actual);
+        assertEquals(blocks, statistics.blocks());
+        assertTrue(statistics.solidBlocks() > 0);
+        // at most one miss per pool entry and band
+        assertTrue(statistics.blocks() - statistics.solidBlocks() - statistics.cachedBlocks() <= 3 * (pool.length - 1));
+    }
+}
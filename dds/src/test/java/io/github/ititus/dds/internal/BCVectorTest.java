@@ -0,0 +1,48 @@
+package io.github.ititus.dds.internal;
+
+import io.github.ititus.dds.DxgiFormat;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class BCVectorTest {
+
+    private static void assertMatchesScalar(DxgiFormat format, BC.BlockDecoder scalar, int blockSize) {
+        BC.BlockRowDecoder vector = new BCVector().apply(format);
+        Random random = new Random(0);
+        int[] expected = new int[16];
+        for (int blocks = 1; blocks <= 67; blocks += 11) {
+            byte[] data = new byte[blocks * blockSize];
+            int[] actual = new int[16 * blocks];
+            for (int n = 0; n < 200; n++) {
+                random.nextBytes(data);
+                ByteBuffer in = ByteBuffer.wrap(data).order(ByteOrder.LITTLE_ENDIAN);
+                vector.decode(in, blocks, actual);
+                assertEquals(data.length, in.position());
+
+                in.rewind();
+                for (int i = 0; i < blocks; i++) {
+                    scalar.decode(in, expected);
+                    assertArrayEquals(expected, Arrays.copyOfRange(actual, 16 * i, 16 * i + 16), format + " block " + i);
+                }
+            }
+        }
+    }
+
+    @Test
+    void testBC1() {
+        // random endpoints cover both the four and the three color mode
+        assertMatchesScalar(DxgiFormat.BC1_UNORM, BC1.DECODER, 8);
+    }
+
+    @Test
+    void testBC3() {
+        assertMatchesScalar(DxgiFormat.BC3_UNORM, BC3.DECODER, 16);
+    }
+}
@@ -1,4 +1,4 @@
-package io.github.ititus.ddsiio.internal;
+package io.github.ititus.dds.internal;
 
 import org.junit.jupiter.api.Test;
 
@@ -0,0 +1,207 @@
+package io.github.ititus.dds.internal;
+
+import io.github.ititus.dds.D3dFormat;
+import io.github.ititus.dds.DxgiFormat;
+import io.github.ititus.dds.PixelFormat;
+import jdk.incubator.vector.IntVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorSpecies;
+
+import java.nio.ByteBuffer;
+import java.util.function.Function;
+
+import static jdk.incubator.vector.VectorOperators.GT;
+import static jdk.incubator.vector.VectorOperators.LSHL;
+import static jdk.incubator.vector.VectorOperators.LSHR;
+
+/**
+ * BC1 and BC3 decoders built on the incubating Vector API, decoding one block per vector lane.
+ * Their output is identical to {@link BC1} and {@link BC3}.
+ * <p>
+ * This class must only be loaded if the {@code jdk.incubator.vector} module is present, {@link BC} does so through
+ * reflection.
+ */
+public final class BCVector implements Function<PixelFormat, BC.BlockRowDecoder> {
+
+    private static final VectorSpecies<Integer> SPECIES = IntVector.SPECIES_PREFERRED;
+    private static final int LANES = SPECIES.length();
+
+    /**
+     * Scatters lane {@code i} to the texels of the {@code i}-th block.
+     */
+    private static final int[] BLOCK_OFFSETS = new int[LANES];
+
+    static {
+        for (int i = 0; i < LANES; i++) {
+            BLOCK_OFFSETS[i] = 16 * i;
+        }
+    }
+
+    /**
+     * @throws UnsupportedOperationException if the platform has no useful vector support
+     */
+    public BCVector() {
+        if (LANES < 4) {
+            throw new UnsupportedOperationException("vector species too small: " + SPECIES);
+        }
+    }
+
+    @Override
+    public BC.BlockRowDecoder apply(PixelFormat format) {
+        return switch (format) {
+            case D3dFormat.DXT1, DxgiFormat.BC1_UNORM, DxgiFormat.BC1_UNORM_SRGB -> BCVector::decodeBC1;
+            case D3dFormat.DXT4, D3dFormat.DXT5, DxgiFormat.BC3_UNORM, DxgiFormat.BC3_UNORM_SRGB -> BCVector::decodeBC3;
+            default -> null;
+        };
+    }
+
+    private static void decodeBC1(ByteBuffer in, int blocks, int[] out) {
+        int[] endpoints = new int[LANES];
+        int[] indices = new int[LANES];
+        int block = 0;
+        for (; block + LANES <= blocks; block += LANES) {
+            for (int i = 0; i < LANES; i++) {
+                endpoints[i] = in.getInt();
+                indices[i] = in.getInt();
+            }
+
+            decodeColors(endpoints, indices, true, out, 16 * block);
+        }
+
+        decodeRemaining(in, blocks - block, out, 16 * block, BC1.DECODER);
+    }
+
+    private static void decodeBC3(ByteBuffer in, int blocks, int[] out) {
+        int[] alphasLo = new int[LANES];
+        int[] alphasHi = new int[LANES];
+        int[] endpoints = new int[LANES];
+        int[] indices = new int[LANES];
+        int block = 0;
+        for (; block + LANES <= blocks; block += LANES) {
+            for (int i = 0; i < LANES; i++) {
+                alphasLo[i] = in.getInt();
+                alphasHi[i] = in.getInt();
+                endpoints[i] = in.getInt();
+                indices[i] = in.getInt();
+            }
+
+            decodeColors(endpoints, indices, false, out, 16 * block);
+            decodeAlphas(alphasLo, alphasHi, out, 16 * block);
+        }
+
+        decodeRemaining(in, blocks - block, out, 16 * block, BC3.DECODER);
+    }
+
+    private static void decodeRemaining(ByteBuffer in, int blocks, int[] out, int offset, BC.BlockDecoder decoder) {
+        int[] decoded = new int[16];
+        for (int i = 0; i < blocks; i++, offset += 16) {
+            decoder.decode(in, decoded);
+            System.arraycopy(decoded, 0, out, offset, 16);
+        }
+    }
+
+    private static void decodeColors(int[] endpoints, int[] indices, boolean oneBitAlpha, int[] out, int offset) {
+        IntVector e = IntVector.fromArray(SPECIES, endpoints, 0);
+        IntVector raw0 = e.and(0xFFFF);
+        IntVector raw1 = e.lanewise(LSHR, 16);
+
+        IntVector r0 = expand5(raw0.lanewise(LSHR, 11).and(0x1F));
+        IntVector g0 = expand6(raw0.lanewise(LSHR, 5).and(0x3F));
+        IntVector b0 = expand5(raw0.and(0x1F));
+        IntVector r1 = expand5(raw1.lanewise(LSHR, 11).and(0x1F));
+        IntVector g1 = expand6(raw1.lanewise(LSHR, 5).and(0x3F));
+        IntVector b1 = expand5(raw1.and(0x1F));
+
+        IntVector c0 = rgb(r0, g0, b0);
+        IntVector c1 = rgb(r1, g1, b1);
+        IntVector c2 = rgb(lerpThird(r0, r1), lerpThird(g0, g1), lerpThird(b0, b1));
+        IntVector c3 = rgb(lerpThird(r1, r0), lerpThird(g1, g0), lerpThird(b1, b0));
+        if (oneBitAlpha) {
+            VectorMask<Integer> threeColors = raw0.compare(GT, raw1).not();
+            c2 = c2.blend(rgb(lerpHalf(r0, r1), lerpHalf(g0, g1), lerpHalf(b0, b1)), threeColors);
+            c3 = c3.blend(0, threeColors);
+        }
+
+        IntVector colorIndices = IntVector.fromArray(SPECIES, indices, 0);
+        for (int i = 0; i < 16; i++) {
+            IntVector index = colorIndices.lanewise(LSHR, 2 * i).and(0x3);
+            IntVector color = c0.blend(c1, index.eq(1)).blend(c2, index.eq(2)).blend(c3, index.eq(3));
+            color.intoArray(out, offset + i, BLOCK_OFFSETS, 0);
+        }
+    }
+
+    private static void decodeAlphas(int[] alphasLo, int[] alphasHi, int[] out, int offset) {
+        IntVector lo = IntVector.fromArray(SPECIES, alphasLo, 0);
+        IntVector hi = IntVector.fromArray(SPECIES, alphasHi, 0);
+        IntVector a0 = lo.and(0xFF);
+        IntVector a1 = lo.lanewise(LSHR, 8).and(0xFF);
+        VectorMask<Integer> eightAlphas = a0.compare(GT, a1);
+
+        IntVector[] alphas = new IntVector[8];
+        alphas[0] = a0;
+        alphas[1] = a1;
+        for (int i = 1; i <= 6; i++) {
+            IntVector a = divide7(a0.mul(7 - i).add(a1.mul(i)));
+            if (i <= 4) {
+                alphas[i + 1] = divide5(a0.mul(5 - i).add(a1.mul(i))).blend(a, eightAlphas);
+            } else {
+                alphas[i + 1] = IntVector.broadcast(SPECIES, i == 5 ? 0 : 255).blend(a, eightAlphas);
+            }
+        }
+
+        // 48 index bits, split into the 24 bits of the first and the last eight texels
+        IntVector indicesLo = lo.lanewise(LSHR, 16).or(hi.lanewise(LSHL, 16)).and(0xFFFFFF);
+        IntVector indicesHi = hi.lanewise(LSHR, 8);
+        for (int i = 0; i < 16; i++) {
+            IntVector index = (i < 8 ? indicesLo.lanewise(LSHR, 3 * i) : indicesHi.lanewise(LSHR, 3 * (i - 8))).and(0x7);
+            IntVector alpha = alphas[0];
+            for (int j = 1; j < 8; j++) {
+                alpha = alpha.blend(alphas[j], index.eq(j));
+            }
+
+            IntVector color = IntVector.fromArray(SPECIES, out, offset + i, BLOCK_OFFSETS, 0);
+            color.and(0xFFFFFF).or(alpha.lanewise(LSHL, 24)).intoArray(out, offset + i, BLOCK_OFFSETS, 0);
+        }
+    }
+
+    private static IntVector expand5(IntVector v) {
+        return v.lanewise(LSHL, 3).or(v.lanewise(LSHR, 2));
+    }
+
+    private static IntVector expand6(IntVector v) {
+        return v.lanewise(LSHL, 2).or(v.lanewise(LSHR, 4));
+    }
+
+    private static IntVector rgb(IntVector r, IntVector g, IntVector b) {
+        return r.lanewise(LSHL, 16).or(g.lanewise(LSHL, 8)).or(b).or(0xFF000000);
+    }
+
+    /**
+     * @return {@code (2 * x0 + x1 + 1) / 3}
+     */
+    private static IntVector lerpThird(IntVector x0, IntVector x1) {
+        // exact for all sums of two 8-bit values
+        return x0.add(x0).add(x1).add(1).mul(43691).lanewise(LSHR, 17);
+    }
+
+    /**
+     * @return {@code (x0 + x1 + 1) / 2}
+     */
+    private static IntVector lerpHalf(IntVector x0, IntVector x1) {
+        return x0.add(x1).add(1).lanewise(LSHR, 1);
+    }
+
+    /**
+     * @return {@code v / 7}, exact for {@code 0 <= v <= 7 * 255}
+     */
+    private static IntVector divide7(IntVector v) {
+        return v.mul(9363).lanewise(LSHR, 16);
+    }
+
+    /**
+     * @return {@code v / 5}, exact for {@code 0 <= v <= 5 * 255}
+     */
+    private static IntVector divide5(IntVector v) {
+        return v.mul(13108).lanewise(LSHR, 16);
+    }
+}
@@ -5,9 +5,10 @@ import com.sun.javafx.iio.ImageMetadata;
 import com.sun.javafx.iio.ImageStorage;
 import com.sun.javafx.iio.common.ImageLoaderImpl;
 import com.sun.javafx.iio.common.ImageTools;
+import io.github.ititus.ddsiio.DdsImageReader;
+import io.github.ititus.ddsiio.DdsImageReaderSpi;
 
 import javax.imageio.ImageIO;
-import javax.imageio.ImageReader;
 import java.awt.image.BufferedImage;
 import java.awt.image.ColorModel;
 import java.awt.image.WritableRaster;
@@ -30,18 +31,19 @@ public class DdsImageLoader extends ImageLoaderImpl {
 
     @Override
     public ImageFrame load(int imageIndex, int width, int height, boolean preserveAspectRatio, boolean smooth) throws IOException {
-        ImageReader reader = ImageIO.getImageReadersByFormatName("dds").next();
+        DdsImageReader reader = new DdsImageReader(new DdsImageReaderSpi());
         reader.setInput(ImageIO.createImageInputStream(input));
-        BufferedImage img = reader.read(imageIndex);
 
+        int[] out = ImageTools.computeDimensions(reader.getWidth(imageIndex), reader.getHeight(imageIndex), width, height, preserveAspectRatio);
+        width = out[0];
+        height = out[1];
+
+        // scale down from the smallest mipmap level that is still large enough
+        BufferedImage img = reader.read(reader.findMipmap(imageIndex, width, height));
         ColorModel cm = img.getColorModel();
         int w = img.getWidth();
         int h = img.getHeight();
 
-        int[] out = ImageTools.computeDimensions(w, h, width, height, preserveAspectRatio);
-        width = out[0];
-        height = out[1];
-
         boolean hasAlpha = cm.hasAlpha();
         int bpp = hasAlpha ? 4 : 3;
         ImageStorage.ImageType type = hasAlpha ? (img.isAlphaPremultiplied() ? ImageStorage.ImageType.RGBA_PRE :
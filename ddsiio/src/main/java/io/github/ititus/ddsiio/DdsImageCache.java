@@ -0,0 +1,236 @@
+package io.github.ititus.ddsiio;
+
+import javax.imageio.ImageReader;
+import javax.imageio.stream.FileImageInputStream;
+import javax.imageio.stream.ImageInputStream;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBuffer;
+import java.awt.image.SampleModel;
+import java.io.IOException;
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.SoftReference;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.StringJoiner;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * Cache of decoded images, keyed by file, modification time and image index.
+ * <p>
+ * The least recently used images are evicted once their combined size exceeds the byte budget, the size of an image is
+ * its width times its height times its bytes per pixel.
+ * With soft references the garbage collector may additionally evict images when memory runs low.
+ * <p>
+ * Concurrent requests for the same image share a single decode.
+ * The returned images are shared between all callers and must not be modified.
+ */
+public final class DdsImageCache {
+
+    private final DdsImageReaderSpi spi;
+    private final long maxBytes;
+    private final ReferenceQueue<BufferedImage> queue;
+
+    // all fields below are guarded by this
+    private final LinkedHashMap<Key, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private final Map<Key, CompletableFuture<BufferedImage>> inFlight = new HashMap<>();
+    private long bytes;
+    private long hits;
+    private long misses;
+    private long evictions;
+
+    public DdsImageCache(long maxBytes) {
+        this(maxBytes, false);
+    }
+
+    /**
+     * @param maxBytes       combined size of all cached images
+     * @param softReferences whether to only hold the images softly, allowing the garbage collector to evict them
+     */
+    public DdsImageCache(long maxBytes, boolean softReferences) {
+        this(maxBytes, softReferences, new DdsImageReaderSpi());
+    }
+
+    DdsImageCache(long maxBytes, boolean softReferences, DdsImageReaderSpi spi) {
+        if (maxBytes < 0) {
+            throw new IllegalArgumentException("maxBytes must not be negative");
+        }
+
+        this.spi = spi;
+        this.maxBytes = maxBytes;
+        this.queue = softReferences ? new ReferenceQueue<>() : null;
+    }
+
+    private static long sizeOf(BufferedImage image) {
+        SampleModel sm = image.getSampleModel();
+        long bytesPerPixel = (long) sm.getNumDataElements() * DataBuffer.getDataTypeSize(sm.getDataType()) / Byte.SIZE;
+        return (long) image.getWidth() * image.getHeight() * bytesPerPixel;
+    }
+
+    /**
+     * Returns the cached image or decodes it.
+     * Requests that wait for the decode of another request count as hits.
+     */
+    public BufferedImage get(Path path, int imageIndex) throws IOException {
+        Key key = new Key(path.toAbsolutePath().normalize(), Files.getLastModifiedTime(path), imageIndex);
+        CompletableFuture<BufferedImage> pending;
+        synchronized (this) {
+            purge();
+            Entry entry = entries.get(key);
+            BufferedImage cached = entry != null ? entry.get() : null;
+            if (cached != null) {
+                hits++;
+                return cached;
+            }
+
+            pending = inFlight.get(key);
+            if (pending != null) {
+                hits++;
+            } else {
+                misses++;
+                inFlight.put(key, new CompletableFuture<>());
+            }
+        }
+
+        if (pending != null) {
+            try {
+                return pending.join();
+            } catch (CompletionException e) {
+                throw new IOException("could not decode image " + imageIndex + " of " + path, e.getCause());
+            }
+        }
+
+        return decode(key);
+    }
+
+    private BufferedImage decode(Key key) throws IOException {
+        BufferedImage image;
+        try (ImageInputStream is = new FileImageInputStream(key.path().toFile())) {
+            ImageReader reader = spi.createReaderInstance();
+            try {
+                reader.setInput(is, true, true);
+                image = reader.read(key.imageIndex());
+            } finally {
+                reader.dispose();
+            }
+        } catch (Throwable e) {
+            // errors have to complete the future as well, otherwise waiting requests would hang forever
+            CompletableFuture<BufferedImage> pending;
+            synchronized (this) {
+                pending = inFlight.remove(key);
+            }
+
+            pending.completeExceptionally(e);
+            throw e;
+        }
+
+        CompletableFuture<BufferedImage> pending;
+        synchronized (this) {
+            pending = inFlight.remove(key);
+            put(key, image);
+        }
+
+        pending.complete(image);
+        return image;
+    }
+
+    private void put(Key key, BufferedImage image) {
+        long size = sizeOf(image);
+        if (size > maxBytes) {
+            return;
+        }
+
+        Entry previous = entries.put(key, new Entry(key, image, size, queue));
+        if (previous != null) {
+            bytes -= previous.size;
+        }
+
+        bytes += size;
+        for (Iterator<Entry> it = entries.values().iterator(); bytes > maxBytes && it.hasNext(); ) {
+            Entry eldest = it.next();
+            it.remove();
+            bytes -= eldest.size;
+            evictions++;
+        }
+    }
+
+    /**
+     * Removes the entries whose images were collected.
+     */
+    private void purge() {
+        if (queue == null) {
+            return;
+        }
+
+        for (Reference<? extends BufferedImage> ref; (ref = queue.poll()) != null; ) {
+            Entry entry = (Entry) ref;
+            if (entries.remove(entry.key, entry)) {
+                bytes -= entry.size;
+                evictions++;
+            }
+        }
+    }
+
+    public synchronized void clear() {
+        entries.clear();
+        bytes = 0;
+    }
+
+    public synchronized Statistics statistics() {
+        purge();
+        return new Statistics(hits, misses, evictions, entries.size(), bytes);
+    }
+
+    @Override
+    public String toString() {
+        StringJoiner j = new StringJoiner(", ", this.getClass().getSimpleName() + "[", "]");
+        j.add("maxBytes=" + maxBytes);
+        j.add("softReferences=" + (queue != null));
+        j.add("statistics=" + statistics());
+        return j.toString();
+    }
+
+    /**
+     * @param entries number of cached images
+     * @param bytes   combined size of the cached images
+     */
+    public record Statistics(
+            long hits,
+            long misses,
+            long evictions,
+            int entries,
+            long bytes
+    ) {
+
+        public double hitRate() {
+            long requests = hits + misses;
+            return requests == 0 ? 0 : (double) hits / requests;
+        }
+    }
+
+    private record Key(Path path, FileTime lastModified, int imageIndex) {}
+
+    /**
+     * Holds the image strongly unless a queue for soft references is given.
+     */
+    private static final class Entry extends SoftReference<BufferedImage> {
+
+        private final Key key;
+        private final long size;
+        @SuppressWarnings({"unused", "FieldCanBeLocal"})
+        private final BufferedImage image; // keeps the referent strongly reachable
+
+        private Entry(Key key, BufferedImage image, long size, ReferenceQueue<BufferedImage> queue) {
+            super(image, queue);
+            this.key = key;
+            this.size = size;
+            this.image = queue == null ? image : null;
+        }
+    }
+}
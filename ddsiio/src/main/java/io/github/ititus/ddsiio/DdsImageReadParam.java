@@ -0,0 +1,99 @@
+package io.github.ititus.ddsiio;
+
+import javax.imageio.ImageReadParam;
+import java.util.Objects;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Read parameters of {@link DdsImageReader}.
+ * <p>
+ * Block compressed images with at least {@link #getParallelThreshold()} pixels can be decoded in parallel by
+ * setting the {@link #setParallelism(int) parallelism} to more than {@code 1}.
+ * The surface is then split into that many bands of block rows, which are decoded on the {@link #getExecutor()
+ * executor}.
+ * <p>
+ * With {@link #setMemoizeBlocks(boolean) memoizeBlocks} solid and repeated blocks are not decoded again, the
+ * resulting counters are available from {@link DdsImageReader#getBlockStatistics()}.
+ * <p>
+ * With {@link #setUseMipmaps(boolean) useMipmaps} subsampling by a power of two reads the pixels from the matching
+ * smaller mipmap level instead, if the file contains it. These are filtered versions of the surface, so the result
+ * differs from picking every n-th pixel.
+ */
+public class DdsImageReadParam extends ImageReadParam {
+
+    public static final int DEFAULT_PARALLEL_THRESHOLD = 512 * 512;
+
+    private int parallelism = 1;
+    private int parallelThreshold = DEFAULT_PARALLEL_THRESHOLD;
+    private Executor executor = ForkJoinPool.commonPool();
+    private boolean memoizeBlocks;
+    private boolean useMipmaps;
+
+    public int getParallelism() {
+        return parallelism;
+    }
+
+    /**
+     * @param parallelism maximum number of bands decoded concurrently, {@code 1} to decode sequentially
+     */
+    public void setParallelism(int parallelism) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("parallelism must be positive");
+        }
+
+        this.parallelism = parallelism;
+    }
+
+    public int getParallelThreshold() {
+        return parallelThreshold;
+    }
+
+    /**
+     * @param parallelThreshold minimum number of pixels of an image to decode it in parallel
+     */
+    public void setParallelThreshold(int parallelThreshold) {
+        if (parallelThreshold < 0) {
+            throw new IllegalArgumentException("parallelThreshold must not be negative");
+        }
+
+        this.parallelThreshold = parallelThreshold;
+    }
+
+    public Executor getExecutor() {
+        return executor;
+    }
+
+    /**
+     * @param executor executor to decode the bands on, defaults to the common fork/join pool
+     */
+    public void setExecutor(Executor executor) {
+        this.executor = Objects.requireNonNull(executor, "executor");
+    }
+
+    public boolean isMemoizeBlocks() {
+        return memoizeBlocks;
+    }
+
+    /**
+     * @param memoizeBlocks whether to fill solid blocks directly and copy repeated blocks from a cache
+     */
+    public void setMemoizeBlocks(boolean memoizeBlocks) {
+        this.memoizeBlocks = memoizeBlocks;
+    }
+
+    public boolean isUseMipmaps() {
+        return useMipmaps;
+    }
+
+    /**
+     * @param useMipmaps whether to read subsampled images from smaller mipmap levels
+     */
+    public void setUseMipmaps(boolean useMipmaps) {
+        this.useMipmaps = useMipmaps;
+    }
+
+    boolean shouldDecodeInParallel(int h, int w) {
+        return parallelism > 1 && (long) h * w >= parallelThreshold;
+    }
+}
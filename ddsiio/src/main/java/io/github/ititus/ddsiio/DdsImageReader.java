@@ -1,9 +1,13 @@
 package io.github.ititus.ddsiio;
 
-import io.github.ititus.dds.DdsFile;
+import io.github.ititus.dds.DataReader;
+import io.github.ititus.dds.DdsBlockStatistics;
+import io.github.ititus.dds.DdsInfo;
+import io.github.ititus.dds.DdsLayout;
 import io.github.ititus.dds.DdsResource;
 import io.github.ititus.dds.PixelFormat;
-import io.github.ititus.ddsiio.internal.BC;
+import io.github.ititus.ddsiio.internal.BCRasters;
+import io.github.ititus.ddsiio.internal.Uncompressed;
 import io.github.ititus.ddsiio.internal.Util;
 
 import javax.imageio.IIOException;
@@ -12,25 +16,41 @@ import javax.imageio.ImageReader;
 import javax.imageio.ImageTypeSpecifier;
 import javax.imageio.metadata.IIOMetadata;
 import javax.imageio.stream.ImageInputStream;
+import java.awt.Rectangle;
 import java.awt.image.BufferedImage;
+import java.awt.image.Raster;
 import java.awt.image.WritableRaster;
 import java.io.IOException;
 import java.nio.ByteBuffer;
-import java.nio.IntBuffer;
-import java.nio.ShortBuffer;
 import java.util.Iterator;
 import java.util.List;
 
 public class DdsImageReader extends ImageReader {
 
     private ImageInputStream stream;
-    private DdsFile dds;
+    private DdsInfo info;
+    private DdsLayout layout;
+    private long payloadOffset;
+    private DdsBlockStatistics blockStatistics;
 
     public DdsImageReader(DdsImageReaderSpi originator) {
         super(originator);
     }
 
 
+    /**
+     * @return counters of the last read with {@link DdsImageReadParam#setMemoizeBlocks(boolean) memoizeBlocks}, or
+     * {@code null} if the last read did not memoize blocks
+     */
+    public DdsBlockStatistics getBlockStatistics() {
+        return blockStatistics;
+    }
+
+    @Override
+    public ImageReadParam getDefaultReadParam() {
+        return new DdsImageReadParam();
+    }
+
     @Override
     public int getNumImages(boolean allowSearch) throws IOException {
         if (seekForwardOnly && allowSearch) {
@@ -38,25 +58,25 @@ public class DdsImageReader extends ImageReader {
         }
 
         load();
-        return dds.resourceCount();
+        return info.resourceCount();
     }
 
     @Override
     public int getWidth(int imageIndex) throws IOException {
         loadAndCheckIndex(imageIndex);
-        return dds.resources().get(imageIndex).getWidth();
+        return layout.getWidth(imageIndex);
     }
 
     @Override
     public int getHeight(int imageIndex) throws IOException {
         loadAndCheckIndex(imageIndex);
-        return dds.resources().get(imageIndex).getHeight();
+        return layout.getHeight(imageIndex);
     }
 
     @Override
     public Iterator<ImageTypeSpecifier> getImageTypes(int imageIndex) throws IOException {
         loadAndCheckIndex(imageIndex);
-        return List.of(Util.imageType(dds)).iterator();
+        return List.of(Util.imageType(info.header(), info.header10())).iterator();
     }
 
     @Override
@@ -70,85 +90,224 @@ public class DdsImageReader extends ImageReader {
         return null;
     }
 
+    /**
+     * The thumbnails of an image are the smaller mipmap levels of the same surface, largest first.
+     */
+    @Override
+    public boolean readerSupportsThumbnails() {
+        return true;
+    }
+
+    @Override
+    public int getNumThumbnails(int imageIndex) throws IOException {
+        loadAndCheckIndex(imageIndex);
+        return layout.getMipmapCount() - 1 - layout.getMipmapLevel(imageIndex);
+    }
+
+    @Override
+    public int getThumbnailWidth(int imageIndex, int thumbnailIndex) throws IOException {
+        // loads the headers, so it has to be evaluated before the layout is accessed
+        int index = thumbnailIndex(imageIndex, thumbnailIndex);
+        return layout.getWidth(index);
+    }
+
+    @Override
+    public int getThumbnailHeight(int imageIndex, int thumbnailIndex) throws IOException {
+        // loads the headers, so it has to be evaluated before the layout is accessed
+        int index = thumbnailIndex(imageIndex, thumbnailIndex);
+        return layout.getHeight(index);
+    }
+
+    @Override
+    public BufferedImage readThumbnail(int imageIndex, int thumbnailIndex) throws IOException {
+        int index = thumbnailIndex(imageIndex, thumbnailIndex);
+        clearAbortRequest();
+        blockStatistics = null;
+        processThumbnailStarted(imageIndex, thumbnailIndex);
+        BufferedImage img = decode(index, getDefaultReadParam());
+        processThumbnailComplete();
+        return img;
+    }
+
     @Override
     public BufferedImage read(int imageIndex, ImageReadParam param) throws IOException {
         loadAndCheckIndex(imageIndex);
         clearAbortRequest();
+        blockStatistics = null;
         processImageStarted(imageIndex);
-        if (param == null) {
-            param = getDefaultReadParam();
+        BufferedImage img = decode(imageIndex, param != null ? param : getDefaultReadParam());
+        processImageComplete();
+        return img;
+    }
+
+    @Override
+    public boolean canReadRaster() {
+        return true;
+    }
+
+    /**
+     * Without a param, uncompressed images are returned as read-only views of the read data instead of copying it into
+     * a new raster, see {@link DdsImageViews}.
+     */
+    @Override
+    public Raster readRaster(int imageIndex, ImageReadParam param) throws IOException {
+        loadAndCheckIndex(imageIndex);
+        if (param != null || !DdsImageViews.canView(info.header(), info.header10())) {
+            return read(imageIndex, param).getRaster();
         }
 
-        DdsResource resource = dds.resources().get(imageIndex);
-        ByteBuffer b = resource.getBuffer();
+        clearAbortRequest();
+        blockStatistics = null;
+        processImageStarted(imageIndex);
+        Raster raster;
+        try {
+            raster = DdsImageViews.createRaster(info.header(), info.header10(), readResource(imageIndex));
+        } catch (UnsupportedOperationException e) {
+            throw new IIOException("error while getting image type from " + info, e);
+        }
+        processImageComplete();
+        return raster;
+    }
 
+    private BufferedImage decode(int imageIndex, ImageReadParam param) throws IOException {
         int h = getHeight(imageIndex);
         int w = getWidth(imageIndex);
         Iterator<ImageTypeSpecifier> imageTypes;
         try {
             imageTypes = getImageTypes(imageIndex);
         } catch (UnsupportedOperationException e) {
-            throw new IIOException("error while getting image type from " + dds, e);
+            throw new IIOException("error while getting image type from " + info, e);
         }
         BufferedImage img = getDestination(param, imageTypes, w, h);
         WritableRaster raster = img.getRaster();
 
+        Rectangle srcRegion = new Rectangle();
+        Rectangle destRegion = new Rectangle();
+        computeRegions(param, w, h, img, srcRegion, destRegion);
+        int xSub = param.getSourceXSubsampling();
+        int ySub = param.getSourceYSubsampling();
+
+        int index = imageIndex;
+        if (param instanceof DdsImageReadParam p && p.isUseMipmaps()) {
+            int levels = mipmapLevelsToSkip(imageIndex, srcRegion, destRegion, xSub, ySub);
+            if (levels > 0) {
+                index = mipmapIndex(imageIndex, levels);
+                // the selected pixels of the smaller level are exactly the ones below the selected pixels of this level
+                xSub >>= levels;
+                ySub >>= levels;
+                srcRegion = new Rectangle(
+                        srcRegion.x >> levels,
+                        srcRegion.y >> levels,
+                        (destRegion.width - 1) * xSub + 1,
+                        (destRegion.height - 1) * ySub + 1
+                );
+                w = getWidth(index);
+                h = getHeight(index);
+            }
+        }
+
+        ByteBuffer b = readResource(index).getBuffer();
+        boolean whole = srcRegion.x == 0 && srcRegion.y == 0 && srcRegion.width == w && srcRegion.height == h
+                && xSub == 1 && ySub == 1 && destRegion.x == 0 && destRegion.y == 0;
+
         try {
-            PixelFormat format = dds.derivePixelFormat();
+            PixelFormat format = info.derivePixelFormat();
             if (format.isYUVFormat()) {
                 throw new UnsupportedOperationException("unsupported YUV format " + format);
             } else if (format.isPacked()) {
                 throw new UnsupportedOperationException("unsupported packed format " + format);
             } else if (format.isBlockCompressed()) {
-                BC.decode(h, w, raster, b, format);
-            } else {
-                // assume a simple format that can be copied without decoding it
-                int bpp = format.getBitsPerPixel();
-                switch (bpp) {
-                    case 1, 2, 4, 8 -> {
-                        int pixelsPerByte = 8 / bpp;
-                        byte[] arr = new byte[Util.ceilDivUnsigned(w, pixelsPerByte)];
-                        for (int y = 0; Integer.compareUnsigned(y, h) < 0; y++) {
-                            b.get(arr);
-                            raster.setDataElements(0, y, w, 1, arr);
-                        }
-                    }
-                    case 16 -> {
-                        short[] arr = new short[w];
-                        ShortBuffer sb = b.asShortBuffer();
-                        for (int y = 0; Integer.compareUnsigned(y, h) < 0; y++) {
-                            sb.get(arr);
-                            raster.setDataElements(0, y, w, 1, arr);
-                        }
-                    }
-                    case 24 -> {
-                        int[] arr = new int[w];
-                        for (int y = 0; Integer.compareUnsigned(y, h) < 0; y++) {
-                            for (int x = 0; x < w; x++) {
-                                arr[x] = Util.read24(b);
-                            }
-                            raster.setDataElements(0, y, w, 1, arr);
-                        }
-                    }
-                    case 32 -> {
-                        int[] arr = new int[w];
-                        IntBuffer ib = b.asIntBuffer();
-                        for (int y = 0; Integer.compareUnsigned(y, h) < 0; y++) {
-                            ib.get(arr);
-                            raster.setDataElements(0, y, w, 1, arr);
-                        }
-                    }
-                    default -> throw new UnsupportedOperationException("unsupported bpp " + bpp + " for assumed simple format " + format);
+                if (!whole) {
+                    BCRasters.decodeRegion(h, w, b, format, srcRegion, xSub, ySub, raster, destRegion);
+                } else if (param instanceof DdsImageReadParam p && p.isMemoizeBlocks()) {
+                    int parallelism = p.shouldDecodeInParallel(h, w) ? p.getParallelism() : 1;
+                    blockStatistics = BCRasters.decodeMemoized(h, w, raster, b, format, p.getExecutor(), parallelism);
+                } else if (param instanceof DdsImageReadParam p && p.shouldDecodeInParallel(h, w)) {
+                    BCRasters.decode(h, w, raster, b, format, p.getExecutor(), p.getParallelism());
+                } else {
+                    BCRasters.decode(h, w, raster, b, format);
                 }
+            } else if (!whole) {
+                // assume a simple format that can be copied without decoding it
+                Uncompressed.copyRegion(w, b, format, srcRegion, xSub, ySub, raster, destRegion);
+            } else {
+                Uncompressed.copy(h, w, raster, b, format);
             }
         } catch (Exception e) {
-            throw new IIOException("error while processing image " + dds, e);
+            throw new IIOException("error while processing image " + info, e);
         }
 
-        processImageComplete();
         return img;
     }
 
+    /**
+     * Finds the smallest mipmap level of the same surface as the given image that is at least as large as the given
+     * size in both dimensions.
+     *
+     * @return index of that level, or {@code imageIndex} if no smaller level is large enough
+     */
+    public int findMipmap(int imageIndex, int minWidth, int minHeight) throws IOException {
+        loadAndCheckIndex(imageIndex);
+        int levels = 0;
+        int maxLevels = layout.getMipmapCount() - 1 - layout.getMipmapLevel(imageIndex);
+        while (levels < maxLevels) {
+            int next = mipmapIndex(imageIndex, levels + 1);
+            if (layout.getWidth(next) < minWidth || layout.getHeight(next) < minHeight) {
+                break;
+            }
+
+            levels++;
+        }
+
+        return mipmapIndex(imageIndex, levels);
+    }
+
+    /**
+     * @return index of the image holding the given thumbnail
+     */
+    private int thumbnailIndex(int imageIndex, int thumbnailIndex) throws IOException {
+        int thumbnails = getNumThumbnails(imageIndex);
+        if (thumbnailIndex < 0 || thumbnailIndex >= thumbnails) {
+            throw new IndexOutOfBoundsException("thumbnailIndex " + thumbnailIndex + " out of bounds: only " + thumbnails + " thumbnail(s) available!");
+        }
+
+        return mipmapIndex(imageIndex, thumbnailIndex + 1);
+    }
+
+    /**
+     * @return index of the image {@code levels} mipmap levels below the given image
+     */
+    private int mipmapIndex(int imageIndex, int levels) {
+        return layout.indexOf(
+                layout.getArrayIndex(imageIndex),
+                layout.getFaceIndex(imageIndex),
+                layout.getMipmapLevel(imageIndex) + levels,
+                layout.getZLevel(imageIndex) >> levels
+        );
+    }
+
+    /**
+     * Subsampling by a power of two can read the corresponding smaller mipmap level without subsampling.
+     *
+     * @return how many mipmap levels below the given image the selected pixels can be read from
+     */
+    private int mipmapLevelsToSkip(int imageIndex, Rectangle srcRegion, Rectangle destRegion, int xSub, int ySub) {
+        int levels = Math.min(Integer.numberOfTrailingZeros(xSub | ySub), layout.getMipmapCount() - 1 - layout.getMipmapLevel(imageIndex));
+        int lastX = srcRegion.x + (destRegion.width - 1) * xSub;
+        int lastY = srcRegion.y + (destRegion.height - 1) * ySub;
+        // rounding down odd sizes can cut off the last row or column
+        while (levels > 0) {
+            int index = mipmapIndex(imageIndex, levels);
+            if (lastX >> levels < layout.getWidth(index) && lastY >> levels < layout.getHeight(index)) {
+                break;
+            }
+
+            levels--;
+        }
+
+        return levels;
+    }
+
     @Override
     public void setInput(Object input, boolean seekForwardOnly, boolean ignoreMetadata) {
         super.setInput(input, seekForwardOnly, ignoreMetadata);
@@ -170,25 +329,44 @@ public class DdsImageReader extends ImageReader {
 
     private void loadAndCheckIndex(int imageIndex) throws IOException {
         load();
-        if (imageIndex < 0 || imageIndex >= dds.resourceCount()) {
-            throw new IndexOutOfBoundsException("imageIndex " + imageIndex + " out of bounds: only " + dds.resourceCount() + "image(s) available!");
+        if (imageIndex < 0 || imageIndex >= info.resourceCount()) {
+            throw new IndexOutOfBoundsException("imageIndex " + imageIndex + " out of bounds: only " + info.resourceCount() + "image(s) available!");
         }
     }
 
     private void _reset() {
-        dds = null;
+        info = null;
+        layout = null;
+        payloadOffset = 0;
+        blockStatistics = null;
     }
 
     private void load() throws IOException {
         checkSource();
-        if (dds != null) {
+        if (info != null) {
             return;
         }
 
+        // only the headers, the resources are read on demand
         try {
-            dds = DdsFile.load(stream);
+            long start = stream.getStreamPosition();
+            info = DdsInfo.load(DataReader.of(stream));
+            layout = info.layout();
+            payloadOffset = start + info.headerSize();
         } catch (Exception e) {
             throw new IIOException("error while loading dds file", e);
         }
     }
+
+    /**
+     * Seeks to the given resource and reads only its data.
+     */
+    private DdsResource readResource(int imageIndex) throws IOException {
+        try {
+            stream.seek(payloadOffset + layout.getOffset(imageIndex));
+            return DdsResource.load(DataReader.of(stream), layout, imageIndex);
+        } catch (Exception e) {
+            throw new IIOException("error while reading image " + imageIndex + " of " + info, e);
+        }
+    }
 }
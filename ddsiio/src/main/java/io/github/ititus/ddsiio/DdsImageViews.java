@@ -0,0 +1,97 @@
+package io.github.ititus.ddsiio;
+
+import io.github.ititus.dds.DdsFile;
+import io.github.ititus.dds.DdsHeader;
+import io.github.ititus.dds.DdsHeaderDxt10;
+import io.github.ititus.dds.DdsHelper;
+import io.github.ititus.dds.DdsResource;
+import io.github.ititus.dds.PixelFormat;
+import io.github.ititus.ddsiio.internal.BufferDataBuffer;
+import io.github.ititus.ddsiio.internal.Util;
+
+import javax.imageio.ImageTypeSpecifier;
+import java.awt.Point;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBuffer;
+import java.awt.image.Raster;
+import java.awt.image.SampleModel;
+import java.awt.image.WritableRaster;
+
+/**
+ * Read-only images of uncompressed resources, whose pixels are read straight from the buffer of the resource instead
+ * of being copied.
+ * Modifying their pixels throws {@link UnsupportedOperationException}.
+ * <p>
+ * The views stay backed by the resource, so they must not be used after closing a lazily loaded or mapped
+ * {@link DdsFile}.
+ */
+public final class DdsImageViews {
+
+    private DdsImageViews() {}
+
+    /**
+     * @return whether the resources of the given file can be viewed without decoding them
+     */
+    public static boolean canView(DdsFile dds) {
+        return canView(dds.header(), dds.header10());
+    }
+
+    public static boolean canView(DdsHeader header, DdsHeaderDxt10 header10) {
+        PixelFormat format = DdsHelper.derivePixelFormat(header, header10);
+        if (!canView(format)) {
+            return false;
+        }
+
+        try {
+            return canView(Util.imageType(header, header10));
+        } catch (UnsupportedOperationException e) {
+            return false;
+        }
+    }
+
+    private static boolean canView(PixelFormat format) {
+        return !format.isYUVFormat() && !format.isPacked() && !format.isBlockCompressed();
+    }
+
+    /**
+     * Every pixel has to be stored in whole data elements of the image type, which together are exactly as large as
+     * a pixel of the resource.
+     */
+    private static boolean canView(ImageTypeSpecifier type) {
+        SampleModel sm = type.getSampleModel(1, 1);
+        return DataBuffer.getDataTypeSize(sm.getDataType()) * sm.getNumDataElements() == type.getColorModel().getPixelSize();
+    }
+
+    public static Raster createRaster(DdsFile dds, int index) {
+        return createRaster(dds.header(), dds.header10(), dds.resources().get(index));
+    }
+
+    public static Raster createRaster(DdsHeader header, DdsHeaderDxt10 header10, DdsResource resource) {
+        return createWritableRaster(Util.imageType(header, header10), header, header10, resource);
+    }
+
+    public static BufferedImage createImage(DdsFile dds, int index) {
+        return createImage(dds.header(), dds.header10(), dds.resources().get(index));
+    }
+
+    public static BufferedImage createImage(DdsHeader header, DdsHeaderDxt10 header10, DdsResource resource) {
+        ImageTypeSpecifier type = Util.imageType(header, header10);
+        WritableRaster raster = createWritableRaster(type, header, header10, resource);
+        return new BufferedImage(type.getColorModel(), raster, type.getColorModel().isAlphaPremultiplied(), null);
+    }
+
+    /**
+     * The raster is only writable to be usable in a {@link BufferedImage}, its data buffer rejects all writes.
+     */
+    private static WritableRaster createWritableRaster(ImageTypeSpecifier type, DdsHeader header, DdsHeaderDxt10 header10, DdsResource resource) {
+        PixelFormat format = DdsHelper.derivePixelFormat(header, header10);
+        if (!canView(format) || !canView(type)) {
+            throw new UnsupportedOperationException("cannot view format " + format + " without decoding it");
+        }
+
+        SampleModel sm = type.getSampleModel(resource.getWidth(), resource.getHeight());
+        int size = resource.getWidth() * resource.getHeight() * sm.getNumDataElements();
+        BufferDataBuffer db = new BufferDataBuffer(resource.getBuffer(), sm.getDataType(), size);
+        return Raster.createWritableRaster(sm, db, new Point());
+    }
+}
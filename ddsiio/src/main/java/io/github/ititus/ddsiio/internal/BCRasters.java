@@ -0,0 +1,94 @@
+package io.github.ititus.ddsiio.internal;
+
+import io.github.ititus.dds.DdsBlockStatistics;
+import io.github.ititus.dds.PixelFormat;
+import io.github.ititus.dds.internal.BC;
+
+import java.awt.Rectangle;
+import java.awt.image.DataBufferInt;
+import java.awt.image.SinglePixelPackedSampleModel;
+import java.awt.image.WritableRaster;
+import java.nio.ByteBuffer;
+import java.util.concurrent.Executor;
+
+/**
+ * Decodes block compressed surfaces into rasters with the decoders of the {@code dds} module.
+ * Rasters backed by a packed int array are written to directly, all others through a temporary array.
+ */
+public final class BCRasters {
+
+    private BCRasters() {}
+
+    public static void decode(int h, int w, WritableRaster raster, ByteBuffer b, PixelFormat format) {
+        write(raster, 0, 0, w, h, (data, origin, stride) -> {
+            BC.decode(h, w, b, format, data, origin, stride);
+            return null;
+        });
+    }
+
+    /**
+     * Splits the surface into bands of block rows and decodes them concurrently on the given executor.
+     * Returns once all bands are decoded, leaving the buffer positioned after the surface like the sequential decode.
+     *
+     * @param parallelism maximum number of bands
+     */
+    public static void decode(int h, int w, WritableRaster raster, ByteBuffer b, PixelFormat format, Executor executor, int parallelism) {
+        write(raster, 0, 0, w, h, (data, origin, stride) -> {
+            BC.decode(h, w, b, format, data, origin, stride, executor, parallelism);
+            return null;
+        });
+    }
+
+    /**
+     * Like {@link #decode(int, int, WritableRaster, ByteBuffer, PixelFormat, Executor, int)}, but fills solid blocks
+     * directly and copies repeated blocks from a cache instead of decoding them.
+     *
+     * @return counters of this decode
+     */
+    public static DdsBlockStatistics decodeMemoized(int h, int w, WritableRaster raster, ByteBuffer b, PixelFormat format, Executor executor, int parallelism) {
+        return write(raster, 0, 0, w, h, (data, origin, stride) -> BC.decodeMemoized(h, w, b, format, data, origin, stride, executor, parallelism));
+    }
+
+    /**
+     * Decodes every {@code xSub}-th column and {@code ySub}-th row of the source region.
+     *
+     * @param b          buffer positioned at the start of the surface, left positioned after it
+     * @param src        source region, inside the surface
+     * @param destRegion destination region in the raster, one pixel per decoded source pixel
+     */
+    public static void decodeRegion(int h, int w, ByteBuffer b, PixelFormat format, Rectangle src, int xSub, int ySub, WritableRaster raster, Rectangle destRegion) {
+        write(raster, destRegion.x, destRegion.y, destRegion.width, destRegion.height, (data, origin, stride) -> {
+            BC.decodeRegion(h, w, b, format, src.x, src.y, xSub, ySub, destRegion.width, destRegion.height, data, origin, stride);
+            return null;
+        });
+    }
+
+    /**
+     * Lets the writer fill the given area of the raster with ARGB pixels.
+     * Accessing the array directly makes the image unmanaged, which is fine for freshly decoded images.
+     */
+    private static <T> T write(WritableRaster raster, int x, int y, int w, int h, ArrayWriter<T> writer) {
+        if (raster.getDataBuffer() instanceof DataBufferInt db && db.getNumBanks() == 1
+                && raster.getSampleModel() instanceof SinglePixelPackedSampleModel sm
+                && x >= raster.getMinX() && y >= raster.getMinY()
+                && x + w <= raster.getMinX() + raster.getWidth() && y + h <= raster.getMinY() + raster.getHeight()) {
+            int origin = db.getOffset() + sm.getOffset(x - raster.getSampleModelTranslateX(), y - raster.getSampleModelTranslateY());
+            return writer.write(db.getData(), origin, sm.getScanlineStride());
+        }
+
+        int[] data = new int[Math.multiplyExact(w, h)];
+        T result = writer.write(data, 0, w);
+        raster.setDataElements(x, y, w, h, data);
+        return result;
+    }
+
+    @FunctionalInterface
+    private interface ArrayWriter<T> {
+
+        /**
+         * @param origin index of the top left pixel in the array
+         * @param stride distance between two rows in the array
+         */
+        T write(int[] data, int origin, int stride);
+    }
+}
@@ -0,0 +1,51 @@
+package io.github.ititus.ddsiio.internal;
+
+import java.awt.image.DataBuffer;
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.nio.ShortBuffer;
+
+/**
+ * Read-only data buffer that reads its elements straight from a {@link ByteBuffer}, which may be on the heap, direct or
+ * mapped.
+ * Elements are read in the byte order of the buffer, setting them throws {@link UnsupportedOperationException}.
+ */
+public final class BufferDataBuffer extends DataBuffer {
+
+    private final ByteBuffer bytes;
+    private final ShortBuffer shorts;
+    private final IntBuffer ints;
+
+    /**
+     * @param dataType one of {@link #TYPE_BYTE}, {@link #TYPE_USHORT} and {@link #TYPE_INT}
+     * @param size     number of elements
+     */
+    public BufferDataBuffer(ByteBuffer buffer, int dataType, int size) {
+        super(dataType, size);
+        ByteBuffer b = buffer.slice().order(buffer.order());
+        if ((long) size * getDataTypeSize(dataType) / Byte.SIZE > b.remaining()) {
+            throw new IllegalArgumentException("buffer too small for " + size + " elements");
+        }
+
+        this.bytes = dataType == TYPE_BYTE ? b : null;
+        this.shorts = dataType == TYPE_USHORT ? b.asShortBuffer() : null;
+        this.ints = dataType == TYPE_INT ? b.asIntBuffer() : null;
+        if (bytes == null && shorts == null && ints == null) {
+            throw new IllegalArgumentException("unsupported data type " + dataType);
+        }
+    }
+
+    @Override
+    public int getElem(int bank, int i) {
+        return switch (dataType) {
+            case TYPE_BYTE -> Byte.toUnsignedInt(bytes.get(i));
+            case TYPE_USHORT -> Short.toUnsignedInt(shorts.get(i));
+            default -> ints.get(i);
+        };
+    }
+
+    @Override
+    public void setElem(int bank, int i, int val) {
+        throw new UnsupportedOperationException("read-only data buffer");
+    }
+}
@@ -0,0 +1,232 @@
+package io.github.ititus.ddsiio.internal;
+
+import io.github.ititus.dds.PixelFormat;
+
+import java.awt.Rectangle;
+import java.awt.image.ComponentSampleModel;
+import java.awt.image.DataBufferByte;
+import java.awt.image.DataBufferInt;
+import java.awt.image.DataBufferUShort;
+import java.awt.image.SinglePixelPackedSampleModel;
+import java.awt.image.WritableRaster;
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.nio.ShortBuffer;
+
+/**
+ * Copies simple formats, whose pixels are stored exactly like the elements of the raster, without decoding them.
+ * If the raster is backed by an array with the same layout as the surface, whole rows are copied at once.
+ */
+public final class Uncompressed {
+
+    private Uncompressed() {}
+
+    public static void copy(int h, int w, WritableRaster raster, ByteBuffer b, PixelFormat format) {
+        int bpp = format.getBitsPerPixel();
+        if (copyBulk(h, w, raster, b, bpp)) {
+            return;
+        }
+
+        switch (bpp) {
+            case 1, 2, 4, 8 -> {
+                int pixelsPerByte = 8 / bpp;
+                byte[] arr = new byte[Util.ceilDivUnsigned(w, pixelsPerByte)];
+                for (int y = 0; Integer.compareUnsigned(y, h) < 0; y++) {
+                    b.get(arr);
+                    raster.setDataElements(0, y, w, 1, arr);
+                }
+            }
+            case 16 -> {
+                short[] arr = new short[w];
+                ShortBuffer sb = b.asShortBuffer();
+                for (int y = 0; Integer.compareUnsigned(y, h) < 0; y++) {
+                    sb.get(arr);
+                    raster.setDataElements(0, y, w, 1, arr);
+                }
+            }
+            case 24 -> {
+                int[] arr = new int[w];
+                for (int y = 0; Integer.compareUnsigned(y, h) < 0; y++) {
+                    for (int x = 0; x < w; x++) {
+                        arr[x] = Util.read24(b);
+                    }
+                    raster.setDataElements(0, y, w, 1, arr);
+                }
+            }
+            case 32 -> {
+                int[] arr = new int[w];
+                IntBuffer ib = b.asIntBuffer();
+                for (int y = 0; Integer.compareUnsigned(y, h) < 0; y++) {
+                    ib.get(arr);
+                    raster.setDataElements(0, y, w, 1, arr);
+                }
+            }
+            default -> throw new UnsupportedOperationException("unsupported bpp " + bpp + " for assumed simple format " + format);
+        }
+    }
+
+    /**
+     * Copies whole rows straight into the backing array of the raster, with a single bulk get if the rows are
+     * contiguous.
+     * Accessing the array directly makes the image unmanaged, which is fine for freshly decoded images.
+     *
+     * @return whether the raster stores its pixels like the surface, otherwise nothing is copied
+     */
+    private static boolean copyBulk(int h, int w, WritableRaster raster, ByteBuffer b, int bpp) {
+        if (raster.getDataBuffer().getNumBanks() != 1 || raster.getMinX() != 0 || raster.getMinY() != 0
+                || Integer.compareUnsigned(w, raster.getWidth()) > 0 || Integer.compareUnsigned(h, raster.getHeight()) > 0) {
+            return false;
+        }
+
+        int tx = -raster.getSampleModelTranslateX();
+        int ty = -raster.getSampleModelTranslateY();
+        if (bpp == 32 && raster.getDataBuffer() instanceof DataBufferInt db
+                && raster.getSampleModel() instanceof SinglePixelPackedSampleModel sm) {
+            IntBuffer src = b.asIntBuffer();
+            int origin = db.getOffset() + sm.getOffset(tx, ty);
+            int stride = sm.getScanlineStride();
+            if (stride == w) {
+                src.get(db.getData(), origin, h * w);
+            } else {
+                for (int y = 0; y < h; y++) {
+                    src.get(db.getData(), origin + y * stride, w);
+                }
+            }
+        } else if (bpp == 16 && raster.getDataBuffer() instanceof DataBufferUShort db
+                && raster.getSampleModel() instanceof SinglePixelPackedSampleModel sm) {
+            ShortBuffer src = b.asShortBuffer();
+            int origin = db.getOffset() + sm.getOffset(tx, ty);
+            int stride = sm.getScanlineStride();
+            if (stride == w) {
+                src.get(db.getData(), origin, h * w);
+            } else {
+                for (int y = 0; y < h; y++) {
+                    src.get(db.getData(), origin + y * stride, w);
+                }
+            }
+        } else if (bpp == 24 && raster.getDataBuffer() instanceof DataBufferByte db
+                && raster.getSampleModel() instanceof ComponentSampleModel sm && sm.getPixelStride() == 3) {
+            // the band offsets of the image type match the byte order of the file, so copy whole pixels
+            ByteBuffer src = b.duplicate();
+            int stride = sm.getScanlineStride();
+            int origin = db.getOffset() + ty * stride + tx * 3;
+            if (stride == 3 * w) {
+                src.get(db.getData(), origin, 3 * h * w);
+            } else {
+                for (int y = 0; y < h; y++) {
+                    src.get(db.getData(), origin + y * stride, 3 * w);
+                }
+            }
+        } else {
+            return false;
+        }
+
+        return true;
+    }
+
+    /**
+     * Copies every {@code xSub}-th column and {@code ySub}-th row of the source region, reading only those pixels.
+     *
+     * @param b          buffer positioned at the start of the surface, which is left unchanged
+     * @param src        source region, inside the surface
+     * @param destRegion destination region in the raster, one pixel per copied source pixel
+     */
+    public static void copyRegion(int w, ByteBuffer b, PixelFormat format, Rectangle src, int xSub, int ySub, WritableRaster raster, Rectangle destRegion) {
+        copyRegion(w, b, format.getBitsPerPixel(), src, xSub, ySub, raster, destRegion);
+    }
+
+    static void copyRegion(int w, ByteBuffer b, int bpp, Rectangle src, int xSub, int ySub, WritableRaster raster, Rectangle destRegion) {
+        if (bpp < Byte.SIZE) {
+            copySubByteRegion(w, b, bpp, src, xSub, ySub, raster, destRegion);
+            return;
+        }
+
+        int bytesPerPixel = bpp / Byte.SIZE;
+        int pitch = w * bytesPerPixel;
+        int start = b.position();
+        int step = xSub * bytesPerPixel;
+        int dw = destRegion.width;
+        if (bpp == 24 && raster.getDataBuffer() instanceof DataBufferByte db
+                && raster.getSampleModel() instanceof ComponentSampleModel sm && sm.getPixelStride() == 3) {
+            // the data elements are in band order, so copy the bytes as stored into the array instead
+            byte[] data = db.getData();
+            int tx = raster.getSampleModelTranslateX();
+            int ty = raster.getSampleModelTranslateY();
+            for (int i = 0, y = src.y; i < destRegion.height; i++, y += ySub) {
+                int offset = start + y * pitch + src.x * bytesPerPixel;
+                int dst = db.getOffset() + (destRegion.y + i - ty) * sm.getScanlineStride() + (destRegion.x - tx) * 3;
+                for (int j = 0; j < dw; j++, offset += step, dst += 3) {
+                    b.get(offset, data, dst, 3);
+                }
+            }
+
+            return;
+        }
+
+        Object line = switch (bpp) {
+            case 8 -> new byte[dw];
+            case 16 -> new short[dw];
+            case 24, 32 -> new int[dw];
+            default -> throw new UnsupportedOperationException("unsupported bpp " + bpp + " for a source region");
+        };
+
+        for (int i = 0, y = src.y; i < destRegion.height; i++, y += ySub) {
+            int offset = start + y * pitch + src.x * bytesPerPixel;
+            switch (bpp) {
+                case 8 -> {
+                    byte[] arr = (byte[]) line;
+                    for (int j = 0; j < dw; j++, offset += step) {
+                        arr[j] = b.get(offset);
+                    }
+                }
+                case 16 -> {
+                    short[] arr = (short[]) line;
+                    for (int j = 0; j < dw; j++, offset += step) {
+                        arr[j] = b.getShort(offset);
+                    }
+                }
+                case 24 -> {
+                    int[] arr = (int[]) line;
+                    for (int j = 0; j < dw; j++, offset += step) {
+                        arr[j] = Util.read24(b, offset);
+                    }
+                }
+                default -> {
+                    int[] arr = (int[]) line;
+                    for (int j = 0; j < dw; j++, offset += step) {
+                        arr[j] = b.getInt(offset);
+                    }
+                }
+            }
+
+            raster.setDataElements(destRegion.x, destRegion.y + i, dw, 1, line);
+        }
+    }
+
+    /**
+     * Like {@link #copyRegion(int, ByteBuffer, int, Rectangle, int, int, WritableRaster, Rectangle)}, but for formats
+     * with multiple pixels per byte, the leftmost one in the most significant bits.
+     * Every selected sample is unpacked into its own data element.
+     */
+    private static void copySubByteRegion(int w, ByteBuffer b, int bpp, Rectangle src, int xSub, int ySub, WritableRaster raster, Rectangle destRegion) {
+        if (bpp != 1 && bpp != 2 && bpp != 4) {
+            throw new UnsupportedOperationException("unsupported bpp " + bpp + " for a source region");
+        }
+
+        int pixelsPerByte = Byte.SIZE / bpp;
+        int pitch = Util.ceilDivUnsigned(w, pixelsPerByte);
+        int mask = (1 << bpp) - 1;
+        int start = b.position();
+        int dw = destRegion.width;
+        byte[] line = new byte[dw];
+        for (int i = 0, y = src.y; i < destRegion.height; i++, y += ySub) {
+            int row = start + y * pitch;
+            for (int j = 0, x = src.x; j < dw; j++, x += xSub) {
+                int shift = Byte.SIZE - bpp - (x % pixelsPerByte) * bpp;
+                line[j] = (byte) ((b.get(row + x / pixelsPerByte) >>> shift) & mask);
+            }
+
+            raster.setDataElements(destRegion.x, destRegion.y + i, dw, 1, line);
+        }
+    }
+}
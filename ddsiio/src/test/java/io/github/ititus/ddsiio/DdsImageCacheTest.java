@@ -0,0 +1,119 @@
+package io.github.ititus.ddsiio;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static io.github.ititus.ddsiio.DdsImageReaderTest.bgra;
+import static io.github.ititus.ddsiio.DdsImageReaderTest.pixel;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class DdsImageCacheTest {
+
+    @Test
+    void testHitAndEviction(@TempDir Path dir) throws IOException {
+        Path file = dir.resolve("test.dds");
+        Files.write(file, bgra(16, 8, 3));
+
+        // room for the first and the second level, but not for all three
+        DdsImageCache cache = new DdsImageCache(4 * 16 * 8 + 4 * 8 * 4);
+        BufferedImage image = cache.get(file, 0);
+        assertEquals(pixel(0, 3, 2), pixel(image, 3, 2));
+        assertSame(image, cache.get(file, 0));
+        cache.get(file, 1);
+        assertEquals(new DdsImageCache.Statistics(1, 2, 0, 2, 4 * 16 * 8 + 4 * 8 * 4), cache.statistics());
+
+        // the first level is the least recently used one
+        cache.get(file, 2);
+        assertEquals(1, cache.statistics().evictions());
+        assertNotSame(image, cache.get(file, 0));
+        assertEquals(4, cache.statistics().misses());
+    }
+
+    @Test
+    void testModifiedFile(@TempDir Path dir) throws IOException {
+        Path file = dir.resolve("test.dds");
+        Files.write(file, bgra(16, 8, 1));
+
+        DdsImageCache cache = new DdsImageCache(Long.MAX_VALUE, true);
+        BufferedImage image = cache.get(file, 0);
+        Files.setLastModifiedTime(file, FileTime.fromMillis(Files.getLastModifiedTime(file).toMillis() + 1000));
+        assertNotSame(image, cache.get(file, 0));
+        assertEquals(2, cache.statistics().misses());
+    }
+
+    @Test
+    void testErrorCompletesWaitingRequests(@TempDir Path dir) throws Exception {
+        Path file = dir.resolve("test.dds");
+        Files.write(file, bgra(16, 8, 1));
+
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicBoolean failed = new AtomicBoolean();
+        DdsImageReaderSpi spi = new DdsImageReaderSpi() {
+            @Override
+            public ImageReader createReaderInstance(Object extension) {
+                return new DdsImageReader(this) {
+                    @Override
+                    public BufferedImage read(int imageIndex, ImageReadParam param) throws IOException {
+                        if (failed.compareAndSet(false, true)) {
+                            started.countDown();
+                            try {
+                                release.await();
+                            } catch (InterruptedException e) {
+                                throw new IOException(e);
+                            }
+
+                            throw new OutOfMemoryError("test");
+                        }
+
+                        return super.read(imageIndex, param);
+                    }
+                };
+            }
+        };
+
+        DdsImageCache cache = new DdsImageCache(Long.MAX_VALUE, false, spi);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<BufferedImage> first = executor.submit(() -> cache.get(file, 0));
+            started.await();
+            Future<BufferedImage> second = executor.submit(() -> cache.get(file, 0));
+            // the second request waits for the decode of the first one
+            while (cache.statistics().hits() == 0) {
+                Thread.sleep(1);
+            }
+            release.countDown();
+
+            ExecutionException e1 = assertThrows(ExecutionException.class, () -> first.get(10, TimeUnit.SECONDS));
+            assertInstanceOf(OutOfMemoryError.class, e1.getCause());
+            ExecutionException e2 = assertThrows(ExecutionException.class, () -> second.get(10, TimeUnit.SECONDS));
+            assertInstanceOf(IOException.class, e2.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+
+        // the failed decode is not in flight anymore
+        BufferedImage image = cache.get(file, 0);
+        assertEquals(pixel(0, 3, 2), pixel(image, 3, 2));
+        assertEquals(2, cache.statistics().misses());
+    }
+}
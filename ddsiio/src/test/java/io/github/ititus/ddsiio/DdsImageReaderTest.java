@@ -0,0 +1,264 @@
+package io.github.ititus.ddsiio;
+
+import io.github.ititus.dds.DdsHeader;
+import io.github.ititus.dds.DdsPixelformat;
+import org.junit.jupiter.api.Test;
+
+import javax.imageio.IIOException;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import java.awt.Point;
+import java.awt.Rectangle;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBuffer;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+import java.util.Random;
+
+import static io.github.ititus.dds.DdsConstants.*;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class DdsImageReaderTest {
+
+    /**
+     * Pixel {@code (x, y)} of mipmap level {@code mip} of {@link #bgra(int, int, int)}.
+     */
+    static int pixel(int mip, int x, int y) {
+        return 0xFF000000 | (mip << 16) | (y << 8) | x;
+    }
+
+    /**
+     * @param bitCount bits per pixel of an uncompressed file, {@code 0} for a bc1 file
+     */
+    private static ByteBuffer header(int width, int height, int mipMapCount, int bitCount, int payloadSize) {
+        boolean compressed = bitCount == 0;
+        ByteBuffer b = ByteBuffer.allocate(4 + DdsHeader.SIZE + payloadSize).order(ByteOrder.LITTLE_ENDIAN);
+        b.putInt(DDS_MAGIC);
+        b.putInt(DdsHeader.SIZE);
+        b.putInt(DDS_HEADER_FLAGS_TEXTURE | (compressed ? DDS_HEADER_FLAGS_LINEARSIZE : DDS_HEADER_FLAGS_PITCH) | (mipMapCount > 1 ? DDS_HEADER_FLAGS_MIPMAP : 0));
+        b.putInt(height);
+        b.putInt(width);
+        b.putInt(bitCount / 8 * width);
+        b.putInt(0);
+        b.putInt(mipMapCount);
+        b.position(b.position() + 11 * Integer.BYTES);
+        b.putInt(DdsPixelformat.SIZE);
+        if (compressed) {
+            b.putInt(DDPF_FOURCC);
+            b.putInt(D3DFMT_DXT1);
+            b.position(b.position() + 5 * Integer.BYTES);
+        } else {
+            b.putInt(bitCount == 32 ? DDS_RGBA : DDPF_RGB);
+            b.putInt(0);
+            b.putInt(bitCount);
+            b.putInt(0x00ff0000);
+            b.putInt(0x0000ff00);
+            b.putInt(0x000000ff);
+            b.putInt(bitCount == 32 ? 0xff000000 : 0);
+        }
+        b.putInt(DDS_SURFACE_FLAGS_TEXTURE | (mipMapCount > 1 ? DDS_SURFACE_FLAGS_MIPMAP : 0));
+        b.position(b.position() + 4 * Integer.BYTES);
+        return b;
+    }
+
+    /**
+     * Creates an uncompressed 32-bit BGRA dds file with the pixels given by {@link #pixel(int, int, int)}.
+     */
+    static byte[] bgra(int width, int height, int mipMapCount) {
+        int payloadSize = 0;
+        for (int mip = 0, w = width, h = height; mip < mipMapCount; mip++, w = Math.max(1, w / 2), h = Math.max(1, h / 2)) {
+            payloadSize += 4 * w * h;
+        }
+
+        ByteBuffer b = header(width, height, mipMapCount, 32, payloadSize);
+        for (int mip = 0, w = width, h = height; mip < mipMapCount; mip++, w = Math.max(1, w / 2), h = Math.max(1, h / 2)) {
+            for (int y = 0; y < h; y++) {
+                for (int x = 0; x < w; x++) {
+                    b.putInt(pixel(mip, x, y));
+                }
+            }
+        }
+
+        return b.array();
+    }
+
+    /**
+     * Creates a bc1 dds file with random blocks.
+     */
+    static byte[] bc1(int width, int height, int mipMapCount, long seed) {
+        int payloadSize = 0;
+        for (int mip = 0, w = width, h = height; mip < mipMapCount; mip++, w = Math.max(1, w / 2), h = Math.max(1, h / 2)) {
+            payloadSize += 8 * ((w + 3) / 4) * ((h + 3) / 4);
+        }
+
+        ByteBuffer b = header(width, height, mipMapCount, 0, payloadSize);
+        byte[] payload = new byte[payloadSize];
+        new Random(seed).nextBytes(payload);
+        b.put(payload);
+        return b.array();
+    }
+
+    /**
+     * Creates an uncompressed 24-bit BGR dds file with the pixels given by {@link #pixel(int, int, int)}, without alpha.
+     */
+    static byte[] bgr(int width, int height) {
+        ByteBuffer b = header(width, height, 1, 24, 3 * width * height);
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                b.put((byte) x).put((byte) y).put((byte) 0);
+            }
+        }
+
+        return b.array();
+    }
+
+    static DdsImageReader reader(byte[] data) throws IOException {
+        DdsImageReader reader = new DdsImageReader(new DdsImageReaderSpi());
+        reader.setInput(ImageIO.createImageInputStream(new ByteArrayInputStream(data)));
+        return reader;
+    }
+
+    /**
+     * @return the raw pixel, without converting it from the linear color space of the image
+     */
+    static int pixel(BufferedImage image, int x, int y) {
+        return ((int[]) image.getRaster().getDataElements(x, y, null))[0];
+    }
+
+    private static int[] rgb(BufferedImage image) {
+        return image.getRGB(0, 0, image.getWidth(), image.getHeight(), null, 0, image.getWidth());
+    }
+
+    @Test
+    void testSourceRegionAndSubsampling() throws IOException {
+        DdsImageReader reader = reader(bgra(13, 11, 1));
+        ImageReadParam param = reader.getDefaultReadParam();
+        param.setSourceRegion(new Rectangle(2, 1, 9, 8));
+        param.setSourceSubsampling(3, 2, 1, 0);
+        param.setDestinationOffset(new Point(1, 2));
+
+        BufferedImage image = reader.read(0, param);
+        assertEquals(1 + 3, image.getWidth());
+        assertEquals(2 + 4, image.getHeight());
+        assertEquals(0, pixel(image, 0, 0));
+        for (int j = 0; j < 3; j++) {
+            for (int i = 0; i < 4; i++) {
+                assertEquals(pixel(0, 3 + 3 * j, 1 + 2 * i), pixel(image, 1 + j, 2 + i));
+            }
+        }
+    }
+
+    @Test
+    void testBlockCompressedSourceRegion() throws IOException {
+        byte[] data = bc1(30, 22, 1, 0);
+        int[] full = rgb(reader(data).read(0));
+
+        for (int xSub = 1; xSub <= 6; xSub += 5) {
+            for (int ySub = 1; ySub <= 5; ySub += 2) {
+                DdsImageReader reader = reader(data);
+                ImageReadParam param = reader.getDefaultReadParam();
+                param.setSourceRegion(new Rectangle(5, 3, 21, 17));
+                param.setSourceSubsampling(xSub, ySub, 0, 0);
+                BufferedImage image = reader.read(0, param);
+
+                int[] expected = new int[image.getWidth() * image.getHeight()];
+                for (int y = 0; y < image.getHeight(); y++) {
+                    for (int x = 0; x < image.getWidth(); x++) {
+                        expected[y * image.getWidth() + x] = full[(3 + y * ySub) * 30 + 5 + x * xSub];
+                    }
+                }
+
+                assertArrayEquals(expected, rgb(image), "xSub=" + xSub + " ySub=" + ySub);
+            }
+        }
+    }
+
+    @Test
+    void testFindMipmap() throws IOException {
+        DdsImageReader reader = reader(bgra(16, 8, 5));
+        assertEquals(0, reader.findMipmap(0, 100, 100));
+        assertEquals(1, reader.findMipmap(0, 5, 2));
+        assertEquals(2, reader.findMipmap(1, 4, 2));
+        assertEquals(4, reader.findMipmap(0, 1, 1));
+    }
+
+    @Test
+    void testSubsampleFromMipmap() throws IOException {
+        DdsImageReader reader = reader(bgra(16, 8, 4));
+        DdsImageReadParam param = (DdsImageReadParam) reader.getDefaultReadParam();
+        param.setSourceSubsampling(4, 2, 0, 0);
+        param.setUseMipmaps(true);
+
+        // reads every second column of the 8x4 level
+        BufferedImage image = reader.read(0, param);
+        assertEquals(4, image.getWidth());
+        assertEquals(4, image.getHeight());
+        for (int y = 0; y < 4; y++) {
+            for (int x = 0; x < 4; x++) {
+                assertEquals(pixel(1, 2 * x, y), pixel(image, x, y));
+            }
+        }
+    }
+
+    @Test
+    void testThumbnails() throws IOException {
+        DdsImageReader reader = reader(bgra(16, 8, 4));
+        assertEquals(3, reader.getNumThumbnails(0));
+        assertEquals(0, reader.getNumThumbnails(3));
+        assertFalse(reader.hasThumbnails(3));
+        assertEquals(4, reader.getThumbnailWidth(0, 1));
+        assertEquals(2, reader.getThumbnailHeight(0, 1));
+
+        BufferedImage thumbnail = reader.readThumbnail(1, 0);
+        assertEquals(4, thumbnail.getWidth());
+        assertEquals(2, thumbnail.getHeight());
+        assertEquals(pixel(2, 3, 1), pixel(thumbnail, 3, 1));
+        assertThrows(IndexOutOfBoundsException.class, () -> reader.readThumbnail(0, 3));
+    }
+
+    @Test
+    void testThumbnailSizeBeforeLoad() throws IOException {
+        assertEquals(8, reader(bgra(16, 8, 4)).getThumbnailWidth(0, 0));
+        assertEquals(1, reader(bgra(16, 8, 4)).getThumbnailHeight(0, 2));
+    }
+
+    @Test
+    void testReadsOnlyRequestedImage() throws IOException {
+        // only the headers and the first level are present
+        byte[] data = bgra(16, 8, 4);
+        DdsImageReader reader = reader(Arrays.copyOf(data, 4 + DdsHeader.SIZE + 4 * 16 * 8));
+        assertEquals(4, reader.getNumImages(false));
+        assertEquals(2, reader.getWidth(3));
+        assertEquals(1, reader.getHeight(3));
+
+        BufferedImage image = reader.read(0);
+        assertEquals(pixel(0, 15, 7), pixel(image, 15, 7));
+        assertThrows(IIOException.class, () -> reader.read(1));
+    }
+
+    @Test
+    void testBgr() throws IOException {
+        BufferedImage image = reader(bgr(5, 3)).read(0);
+        assertEquals(DataBuffer.TYPE_BYTE, image.getRaster().getTransferType());
+        for (int y = 0; y < 3; y++) {
+            for (int x = 0; x < 5; x++) {
+                assertArrayEquals(new int[] {0, y, x}, image.getRaster().getPixel(x, y, (int[]) null));
+            }
+        }
+
+        DdsImageReader reader = reader(bgr(5, 3));
+        ImageReadParam param = reader.getDefaultReadParam();
+        param.setSourceSubsampling(2, 2, 1, 0);
+        param.setDestinationOffset(new Point(1, 0));
+        image = reader.read(0, param);
+        assertEquals(3, image.getWidth());
+        assertArrayEquals(new int[] {0, 0, 0}, image.getRaster().getPixel(0, 0, (int[]) null));
+        assertArrayEquals(new int[] {0, 2, 3}, image.getRaster().getPixel(2, 1, (int[]) null));
+    }
+}
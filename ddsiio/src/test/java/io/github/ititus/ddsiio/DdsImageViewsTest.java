@@ -0,0 +1,84 @@
+package io.github.ititus.ddsiio;
+
+import io.github.ititus.dds.DdsFile;
+import io.github.ititus.dds.DdsHeader;
+import io.github.ititus.dds.DdsPixelformat;
+import org.junit.jupiter.api.Test;
+
+import java.awt.image.BufferedImage;
+import java.awt.image.Raster;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+import static io.github.ititus.dds.DdsConstants.*;
+import static io.github.ititus.ddsiio.DdsImageReaderTest.*;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DdsImageViewsTest {
+
+    @Test
+    void testViewMatchesRead() throws IOException {
+        byte[] data = bgra(16, 8, 3);
+        ByteBuffer direct = ByteBuffer.allocateDirect(data.length).put(data).flip();
+        DdsFile dds = DdsFile.load(direct);
+
+        BufferedImage view = DdsImageViews.createImage(dds, 1);
+        BufferedImage read = reader(data).read(1);
+        assertEquals(8, view.getWidth());
+        assertEquals(4, view.getHeight());
+        assertArrayEquals(read.getRGB(0, 0, 8, 4, null, 0, 8), view.getRGB(0, 0, 8, 4, null, 0, 8));
+        assertEquals(pixel(1, 7, 3), pixel(view, 7, 3));
+
+        // the view shares the memory of the file
+        direct.order(ByteOrder.LITTLE_ENDIAN).putInt(direct.limit() - 4 * 4 * 2 - 4, 42);
+        assertEquals(42, pixel(view, 7, 3));
+
+        assertThrows(UnsupportedOperationException.class, () -> view.setRGB(0, 0, 0));
+    }
+
+    @Test
+    void testBgrView() throws IOException {
+        Raster raster = DdsImageViews.createRaster(DdsFile.load(ByteBuffer.wrap(bgr(5, 3))), 0);
+        assertArrayEquals(new int[] {0, 2, 4}, raster.getPixel(4, 2, (int[]) null));
+    }
+
+    @Test
+    void testReadRaster() throws IOException {
+        Raster raster = reader(bgra(16, 8, 1)).readRaster(0, null);
+        assertEquals(pixel(0, 9, 5), ((int[]) raster.getDataElements(9, 5, null))[0]);
+        assertFalse(DdsImageViews.canView(DdsFile.load(ByteBuffer.wrap(bc1(8, 8, 1, 0)))));
+    }
+
+    @Test
+    void testCanView24Bit() {
+        assertTrue(DdsImageViews.canView(header(DDPF_RGB, 0x00ff0000, 0x0000ff00, 0x000000ff, 0), null));
+        assertTrue(DdsImageViews.canView(header(DDPF_RGB, 0x000000ff, 0x0000ff00, 0x00ff0000, 0), null));
+        // these are stored in ints by the image type
+        assertFalse(DdsImageViews.canView(header(DDS_RGBA, 0x00fc0000, 0x0003f000, 0x00000fc0, 0x0000003f), null));
+        assertFalse(DdsImageViews.canView(header(DDPF_RGB, 0x00ffe000, 0x00001fc0, 0x0000003f, 0), null));
+    }
+
+    private static DdsHeader header(int flags, int r, int g, int b, int a) {
+        return new DdsHeader(
+                DdsHeader.SIZE,
+                DDS_HEADER_FLAGS_TEXTURE | DDS_HEADER_FLAGS_PITCH,
+                4,
+                4,
+                3 * 4,
+                0,
+                1,
+                0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0,
+                new DdsPixelformat(DdsPixelformat.SIZE, flags, 0, 24, r, g, b, a),
+                DDS_SURFACE_FLAGS_TEXTURE,
+                0,
+                0,
+                0,
+                0
+        );
+    }
+}
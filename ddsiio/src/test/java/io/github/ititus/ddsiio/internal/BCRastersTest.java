@@ -0,0 +1,84 @@
+package io.github.ititus.ddsiio.internal;
+
+import io.github.ititus.dds.DxgiFormat;
+import org.junit.jupiter.api.Test;
+
+import java.awt.Rectangle;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBuffer;
+import java.awt.image.Raster;
+import java.awt.image.SinglePixelPackedSampleModel;
+import java.awt.image.WritableRaster;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class BCRastersTest {
+
+    private static final int RED = 0xFFFF0000;
+    private static final int BLUE = 0xFF0000FF;
+    private static final int RED_BLUE = 0xFFAA0055;
+
+    /**
+     * Red and blue endpoints, texels 1 to 3 use palette entries 1 to 3 and texel 4 uses entry 2.
+     */
+    private static ByteBuffer bc1Block() {
+        return ByteBuffer.wrap(new byte[] {0x00, (byte) 0xF8, 0x1F, 0x00, (byte) 0xE4, 0x02, 0x00, 0x00}).order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    @Test
+    void testPartialBlock() {
+        BufferedImage image = new BufferedImage(2, 2, BufferedImage.TYPE_INT_ARGB);
+        BCRasters.decode(2, 2, image.getRaster(), bc1Block(), DxgiFormat.BC1_UNORM);
+
+        assertEquals(RED, image.getRGB(0, 0));
+        assertEquals(BLUE, image.getRGB(1, 0));
+        assertEquals(RED_BLUE, image.getRGB(0, 1));
+        assertEquals(RED, image.getRGB(1, 1));
+    }
+
+    @Test
+    void testChildRaster() {
+        BufferedImage image = new BufferedImage(4, 4, BufferedImage.TYPE_INT_ARGB);
+        WritableRaster child = image.getRaster().createWritableChild(1, 2, 2, 2, 0, 0, null);
+        BCRasters.decode(2, 2, child, bc1Block(), DxgiFormat.BC1_UNORM);
+
+        assertEquals(0, image.getRGB(0, 0));
+        assertEquals(RED, image.getRGB(1, 2));
+        assertEquals(BLUE, image.getRGB(2, 2));
+        assertEquals(RED_BLUE, image.getRGB(1, 3));
+        assertEquals(RED, image.getRGB(2, 3));
+        assertEquals(0, image.getRGB(3, 3));
+    }
+
+    @Test
+    void testRegionWithoutArrayAccess() {
+        // a custom data buffer makes the raster unsuitable for direct array access
+        int[] pixels = new int[9];
+        DataBuffer db = new DataBuffer(DataBuffer.TYPE_INT, pixels.length) {
+            @Override
+            public int getElem(int bank, int i) {
+                return pixels[i];
+            }
+
+            @Override
+            public void setElem(int bank, int i, int val) {
+                pixels[i] = val;
+            }
+        };
+        SinglePixelPackedSampleModel sm = new SinglePixelPackedSampleModel(DataBuffer.TYPE_INT, 3, 3, new int[] {0x00FF0000, 0x0000FF00, 0x000000FF, 0xFF000000});
+        WritableRaster raster = Raster.createWritableRaster(sm, db, null);
+        BCRasters.decodeRegion(4, 4, bc1Block(), DxgiFormat.BC1_UNORM, new Rectangle(0, 0, 2, 2), 1, 1, raster, new Rectangle(1, 1, 2, 2));
+
+        assertEquals(0, pixel(raster, 0, 0));
+        assertEquals(RED, pixel(raster, 1, 1));
+        assertEquals(BLUE, pixel(raster, 2, 1));
+        assertEquals(RED_BLUE, pixel(raster, 1, 2));
+        assertEquals(RED, pixel(raster, 2, 2));
+    }
+
+    private static int pixel(Raster raster, int x, int y) {
+        return ((int[]) raster.getDataElements(x, y, null))[0];
+    }
+}
@@ -0,0 +1,46 @@
+package io.github.ititus.ddsiio.internal;
+
+import io.github.ititus.dds.D3dFormat;
+import org.junit.jupiter.api.Test;
+
+import java.awt.Rectangle;
+import java.awt.image.DataBuffer;
+import java.awt.image.Raster;
+import java.awt.image.WritableRaster;
+import java.nio.ByteBuffer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class UncompressedTest {
+
+    @Test
+    void testSubByteRegion() {
+        // 5x3 pixels with 4 bits each, rows padded to whole bytes
+        ByteBuffer b = ByteBuffer.wrap(new byte[] {
+                0x7F, 0x01, 0x23, 0x45, 0x60,
+                0x78, (byte) 0x9A, (byte) 0xB0,
+                (byte) 0xCD, (byte) 0xEF, 0x10
+        }).position(2);
+        WritableRaster raster = Raster.createPackedRaster(DataBuffer.TYPE_BYTE, 3, 2, 1, 4, null);
+        Uncompressed.copyRegion(5, b, 4, new Rectangle(1, 0, 4, 3), 2, 2, raster, new Rectangle(1, 0, 2, 2));
+
+        assertEquals(2, b.position());
+        assertEquals(0, raster.getSample(0, 0, 0));
+        assertEquals(0x3, raster.getSample(1, 0, 0));
+        assertEquals(0x5, raster.getSample(2, 0, 0));
+        assertEquals(0xD, raster.getSample(1, 1, 0));
+        assertEquals(0xF, raster.getSample(2, 1, 0));
+    }
+
+    @Test
+    void testSingleBitRegion() {
+        ByteBuffer b = ByteBuffer.wrap(new byte[] {(byte) 0b1010_0110, (byte) 0b1000_0000});
+        WritableRaster raster = Raster.createPackedRaster(DataBuffer.TYPE_BYTE, 4, 1, 1, 1, null);
+        Uncompressed.copyRegion(9, b, D3dFormat.A1, new Rectangle(2, 0, 7, 1), 2, 1, raster, new Rectangle(0, 0, 4, 1));
+
+        assertEquals(1, raster.getSample(0, 0, 0));
+        assertEquals(0, raster.getSample(1, 0, 0));
+        assertEquals(1, raster.getSample(2, 0, 0));
+        assertEquals(1, raster.getSample(3, 0, 0));
+    }
+}
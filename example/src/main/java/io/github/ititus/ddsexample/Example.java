@@ -1,6 +1,7 @@
 package io.github.ititus.ddsexample;
 
 import io.github.ititus.dds.DdsFile;
+import io.github.ititus.dds.DdsInfo;
 
 import javax.imageio.ImageIO;
 import java.io.IOException;
@@ -82,8 +83,8 @@ public final class Example {
             Path relative = inDir.relativize(file);
             String relativeString = relative.toString().replace('\\', '/');
             try {
-                var dds = DdsFile.load(file);
-                w.println(relativeString + ": " + dds);
+                var info = DdsInfo.probe(file);
+                w.println(relativeString + ": " + info);
             } catch (Exception e) {
                 w.println(relativeString + ": load error | " + e);
             }
@@ -95,8 +96,8 @@ public final class Example {
             Path relative = inDir.relativize(file);
             String relativeString = relative.toString().replace('\\', '/');
             try {
-                var dds = DdsFile.load(file);
-                w.println(relativeString + ": " + dds);
+                var info = DdsInfo.probe(file);
+                w.println(relativeString + ": " + info);
             } catch (Exception e) {
                 w.println(relativeString + ": load error | " + e);
             }
@@ -242,7 +243,7 @@ public final class Example {
     }
 
     static void showInfo(Path in) throws Exception {
-        var dds = DdsFile.load(in);
-        System.out.println(dds);
+        var info = DdsInfo.probe(in);
+        System.out.println(info);
     }
 }